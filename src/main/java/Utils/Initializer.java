@@ -1,17 +1,15 @@
 package Utils;
 
 import baseinfo.Constants;
+import baseinfo.DistanceMatrix;
+import baseinfo.PointTable;
+import baseinfo.SpatialGridIndex;
 import impl.Carrier;
 import impl.Depot;
 import impl.Fence;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
-import java.io.FileInputStream;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 import static baseinfo.MapDistance.calculateSphericalDistance;
 
@@ -32,99 +30,78 @@ public class Initializer {
         carrierList = new ArrayList<>();
     }
 
-    public ArrayList<Fence> fenceInitializer(List<List<Double>> distanceMatrix) {
+    /**
+     * 基于流式读取的点数据表初始化围栏（不再重复打开XLSX），缺失的数值按0处理
+     */
+    public ArrayList<Fence> fenceInitializer(PointTable pointTable, DistanceMatrix distanceMatrix, SpatialGridIndex spatialIndex) {
         System.out.println("开始初始化围栏...");
-        fenceList = new ArrayList<>();
-
-        try (FileInputStream fis = new FileInputStream(Objects.equals(Constants.ALGO_MODE, "CG") ? Constants.allPointsFilePath: Constants.allPointsTestFilePath);
-             Workbook workbook = new XSSFWorkbook(fis)) {
-
-            Sheet sheet = workbook.getSheetAt(0); // 获取第一个工作表
-            int headerRowNum = 0; // 表头行索引（假设第0行为表头）
-            int index = 1; // 顺序编号，从1开始
-
-            // 遍历数据行（从表头下一行开始）
-            for (int rowNum = headerRowNum + 1; rowNum <= sheet.getLastRowNum(); rowNum++) {
-                Row row = sheet.getRow(rowNum);
-                if (row == null) continue;
-
-                try {
-                    int currentIndex = index;
-                    index++;
-
-                    double lon = getCellNumericValue(row.getCell(1));
-                    double lat = getCellNumericValue(row.getCell(2));
-                    double totalDemand = getCellNumericValue(row.getCell(3)); // 第5列（索引4）
-                    double selfDemand = getCellNumericValue(row.getCell(4));  // 第6列（索引5）
-                    double depotDemand = getCellNumericValue(row.getCell(5)); // 第7列（索引6）
-                    double deliverDemand = getCellNumericValue(row.getCell(6)); // 第8列（索引7）
-
-                    // 创建Fence实例
-                    Fence fence = new Fence(
-                            currentIndex,
-                            lon,
-                            lat,
-                            totalDemand,
-                            selfDemand,
-                            depotDemand,
-                            deliverDemand,
-                            0.0,
-                            false
-                    );
-
-                    fence.generateDistanceMap(distanceMatrix);
-                    double nearestDepotDistance = calNearestDepotDistance(fence, depotList);
-                    fence.setOriginalFenceValue(nearestDepotDistance * Constants.DISTANCE_TO_NEAREST_FENCE);
-                    fenceList.add(fence);
-
-                } catch (Exception e) {
-                    System.err.println("解析行 " + rowNum + " 失败：" + e.getMessage());
-                }
-            }
-
-        } catch (IOException e) {
-            // 捕获IO异常（如文件不存在、读取失败等），打印信息后停止程序
-            System.err.println("处理Excel文件时发生错误：" + e.getMessage());
+        fenceList = new ArrayList<>(pointTable.getFenceRowNum());
+        for (int row = 0; row < pointTable.getFenceRowNum(); row++) {
+            fenceList.add(createFence(
+                    row + 1,
+                    valueOrZero(pointTable.getFenceLons()[row]),
+                    valueOrZero(pointTable.getFenceLats()[row]),
+                    valueOrZero(pointTable.getTotalDemands()[row]),
+                    valueOrZero(pointTable.getSelfDemands()[row]),
+                    valueOrZero(pointTable.getDepotDemands()[row]),
+                    valueOrZero(pointTable.getDeliverDemands()[row]),
+                    distanceMatrix,
+                    spatialIndex));
         }
         fenceNum = fenceList.size();
         System.out.println("成功生成围栏数：" + fenceNum);
         return fenceList;
     }
 
-    public ArrayList<Depot> depotInitializer(List<double[]> fenceCoordinates) {
-        System.out.println("开始初始化仓库地图...");
-        if (fenceCoordinates == null || fenceCoordinates.isEmpty()) {
-            System.err.println("围栏坐标为空，无法创建Depot");
-            return new ArrayList<>();
+    private Fence createFence(int index, double lon, double lat, double totalDemand, double selfDemand, double depotDemand,
+                              double deliverDemand, DistanceMatrix distanceMatrix, SpatialGridIndex spatialIndex) {
+        // 创建Fence实例
+        Fence fence = new Fence(
+                index,
+                lon,
+                lat,
+                totalDemand,
+                selfDemand,
+                depotDemand,
+                deliverDemand,
+                0.0,
+                false
+        );
+
+        if (spatialIndex != null) {
+            fence.generateDistanceMap(spatialIndex);
+        } else {
+            fence.generateDistanceMap(distanceMatrix);
         }
+        double nearestDepotDistance = calNearestDepotDistance(fence, depotList);
+        fence.setOriginalFenceValue(nearestDepotDistance * Constants.DISTANCE_TO_NEAREST_FENCE);
+        return fence;
+    }
 
-        depotList = new ArrayList<>();
-        try (FileInputStream fis = new FileInputStream(Objects.equals(Constants.ALGO_MODE, "CG") ? Constants.candidatePointsFilePath : Constants.candidatePointsTestFilePath);
-             Workbook workbook = WorkbookFactory.create(fis)) {
-
-            Sheet sheet = workbook.getSheetAt(0);
-            // 跳过表头行（第0行：Longitude,Latitude）
-            for (int rowNum = 1; rowNum <= sheet.getLastRowNum(); rowNum++) {
-                Row row = sheet.getRow(rowNum);
-                if (row == null) continue;
-
-                // 读取候选点经纬度：A列（索引0）=经度，B列（索引1）=纬度（兼容数字/字符串）
-                double depotLon = getCellValueAsDouble(row.getCell(0));
-                double depotLat = getCellValueAsDouble(row.getCell(1));
-
-                // 过滤无效经纬度
-                if (Double.isNaN(depotLon) || Double.isNaN(depotLat)) {
-                    continue;
-                }
+    private static double valueOrZero(double value) {
+        return Double.isNaN(value) ? 0.0 : value;
+    }
 
-                // 创建Depot并计算到所有围栏的距离
-                Depot depot = new Depot(-rowNum, depotLon, depotLat);
+    /**
+     * 基于流式读取的点数据表初始化仓库，仓库index沿用工作表行号取负
+     */
+    public ArrayList<Depot> depotInitializer(PointTable pointTable, List<double[]> fenceCoordinates, SpatialGridIndex spatialIndex) {
+        System.out.println("开始初始化仓库地图...");
+        depotList = new ArrayList<>();
+        for (int row = 0; row < pointTable.getCandidateRowNum(); row++) {
+            double depotLon = pointTable.getCandidateLons()[row];
+            double depotLat = pointTable.getCandidateLats()[row];
+            // 过滤无效经纬度
+            if (Double.isNaN(depotLon) || Double.isNaN(depotLat)) {
+                continue;
+            }
+            Depot depot = new Depot(-pointTable.getCandidateSheetRows()[row], depotLon, depotLat);
+            if (spatialIndex != null) {
+                depot.generateDistanceMap(spatialIndex);
+            } else {
                 depot.generateDistanceMap(fenceCoordinates);
-                depotList.add(depot);
             }
-        } catch (IOException e) {
-            System.err.println("读取候选点失败：" + e.getMessage());
-            return new ArrayList<>();
+            depotList.add(depot);
         }
         depotNum = depotList.size();
         System.out.println("成功生成仓库数：" + depotList.size());
@@ -166,51 +143,6 @@ public class Initializer {
         }
     }
 
-    /**
-     * 安全获取单元格的字符串值
-     */
-    private double getCellValueAsDouble(Cell cell) {
-        if (cell == null) {
-            return Double.NaN; // 单元格为空返回无效值
-        }
-
-        switch (cell.getCellType()) {
-            case NUMERIC:
-                // 数字类型直接读取
-                return cell.getNumericCellValue();
-            case STRING:
-                // 字符串类型：去除空格后尝试转为double
-                String cellValue = cell.getStringCellValue().trim();
-                try {
-                    return Double.parseDouble(cellValue);
-                } catch (NumberFormatException e) {
-                    System.err.println("字符串单元格转换为数字失败：" + cellValue);
-                    return Double.NaN;
-                }
-            default:
-                // 其他类型（如公式、布尔值）视为无效
-                System.err.println("不支持的单元格类型：" + cell.getCellType());
-                return Double.NaN;
-        }
-    }
-
-    /**
-     * 安全获取单元格的数值（默认0.0）
-     */
-    private double getCellNumericValue(Cell cell) {
-        if (cell == null) return 0.0;
-        try {
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return cell.getNumericCellValue();
-            } else if (cell.getCellType() == CellType.STRING) {
-                return Double.parseDouble(cell.getStringCellValue().trim());
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("单元格数值解析失败：" + e.getMessage());
-        }
-        return 0.0;
-    }
-
     private double calNearestDepotDistance(Fence fence, List<Depot> depotList) {
         double minDistance = Double.MAX_VALUE;
         double fenceLon = fence.getLon(); // 假设Fence有getLon()方法
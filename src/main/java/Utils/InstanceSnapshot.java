@@ -0,0 +1,295 @@
+package Utils;
+
+import baseinfo.Constants;
+import baseinfo.DistanceMatrix;
+import baseinfo.SparseDistanceRow;
+import impl.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * 算例二进制快照：首次构建算例后写出围栏、仓库、载具、距离矩阵及有效弧，
+ * 之后通过内存映射的FileChannel直接加载，跳过XLSX解析与距离计算
+ * 快照头部记录源XLSX文件与关键参数的校验和，任一变化即视为失效并重新构建
+ */
+public class InstanceSnapshot {
+    private static final int MAGIC = 0x49435331; // "ICS1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16; // MAGIC + VERSION + 校验和
+
+    /* 稀疏/完整距离模式的快照内容不同，分别存放，避免baseline与其他模式共用一个文件互相覆盖 */
+    public static Path snapshotPath() {
+        String modeTag = isSparseMode() ? ".sparse" : ".dense";
+        return Path.of(pointsFilePath() + modeTag + Constants.INSTANCE_SNAPSHOT_SUFFIX);
+    }
+
+    /**
+     * 源文件校验和：两个XLSX文件内容 + 影响快照内容的参数（载具的容量与最小载重写入快照，需一并校验；
+     * 最大使用次数由Carrier构造时读取常量，不写入快照）
+     */
+    public static long sourceChecksum() throws IOException {
+        CRC32 crc = new CRC32();
+        for (String filePath : new String[]{pointsFilePath(), candidateFilePath()}) {
+            try (InputStream in = Files.newInputStream(Path.of(filePath))) {
+                byte[] buffer = new byte[1 << 16];
+                int len;
+                while ((len = in.read(buffer)) > 0) {
+                    crc.update(buffer, 0, len);
+                }
+            }
+        }
+        String params = VERSION + "|" + Constants.MAX_DISTANCE + "|" + Constants.DISTANCE_MATRIX_FLOAT_MODE
+                + "|" + isSparseMode() + "|" + Constants.IS_DIFFERENT_CARRIER + "|" + Constants.DISTANCE_TO_NEAREST_FENCE
+                + "|" + Constants.MAX_CAPACITY + "|" + Constants.MIN_CARRIER_LOAD;
+        crc.update(params.getBytes());
+        return crc.getValue();
+    }
+
+    public static boolean isSparseMode() {
+        return Constants.SPARSE_DISTANCE_MODE && !Objects.equals(Constants.ALGO_MODE, "baseline");
+    }
+
+    /* 写出快照 */
+    public static void write(Instance instance, Path path, long checksum) throws IOException {
+        Path tmpPath = Path.of(path + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpPath), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(checksum);
+
+            // 1. 围栏
+            List<Fence> fenceList = instance.getFences().getFenceList();
+            out.writeInt(fenceList.size());
+            for (Fence fence : fenceList) {
+                out.writeInt(fence.getIndex());
+                out.writeDouble(fence.getLon());
+                out.writeDouble(fence.getLat());
+                out.writeDouble(fence.getTotalDemand());
+                out.writeDouble(fence.getSelfDemand());
+                out.writeDouble(fence.getDepotDemand());
+                out.writeDouble(fence.getDeliverDemand());
+                out.writeDouble(fence.getOriginalFenceValue());
+                writeIntList(out, fence.getVaildArcFence());
+                writeSparseRow(out, fence.getSparseDistanceRow());
+            }
+
+            // 2. 仓库
+            List<Depot> depotList = instance.getDepots().getDepotList();
+            out.writeInt(depotList.size());
+            for (Depot depot : depotList) {
+                out.writeInt(depot.getIndex());
+                out.writeDouble(depot.getLongitude());
+                out.writeDouble(depot.getLatitude());
+                writeIntList(out, depot.getValidArcFence());
+                writeSparseRow(out, depot.getSparseDistanceRow());
+            }
+
+            // 3. 载具
+            List<Carrier> carrierList = instance.getCarrierList();
+            out.writeInt(carrierList.size());
+            for (Carrier carrier : carrierList) {
+                out.writeInt(carrier.getIndex());
+                out.writeDouble(carrier.getCapacity());
+                out.writeDouble(carrier.getMaxDistance());
+                out.writeInt(carrier.getDepot());
+                out.writeDouble(carrier.getMinRatioCapacity());
+            }
+
+            // 4. 完整距离矩阵（稀疏模式下不存在）
+            writeMatrix(out, instance.getDistanceMatrix());
+            writeMatrix(out, instance.getDepotDistanceMatrix());
+        }
+        Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 通过内存映射加载快照并填充instance；快照不存在、格式不符或校验和不一致时返回false
+     */
+    public static boolean load(Instance instance, Path path, long checksum) throws IOException {
+        if (!Files.exists(path)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // 先把头部读入堆内缓冲区校验，通过后才建立内存映射：校验失败时不留下映射，重建后可直接替换该文件（Windows下映射会锁定文件）
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) {
+                    break;
+                }
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES
+                    || header.getInt() != MAGIC || header.getInt() != VERSION || header.getLong() != checksum) {
+                return false;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, channel.size() - HEADER_BYTES);
+
+            // 1. 围栏
+            int fenceNum = buffer.getInt();
+            ArrayList<Fence> fenceList = new ArrayList<>(fenceNum);
+            for (int i = 0; i < fenceNum; i++) {
+                int index = buffer.getInt();
+                double lon = buffer.getDouble();
+                double lat = buffer.getDouble();
+                double totalDemand = buffer.getDouble();
+                double selfDemand = buffer.getDouble();
+                double depotDemand = buffer.getDouble();
+                double deliverDemand = buffer.getDouble();
+                double originalFenceValue = buffer.getDouble();
+                Fence fence = new Fence(index, lon, lat, totalDemand, selfDemand, depotDemand, deliverDemand, originalFenceValue, false);
+                fence.setVaildArcFence(readIntList(buffer));
+                fence.setSparseDistanceRow(readSparseRow(buffer));
+                fenceList.add(fence);
+            }
+
+            // 2. 仓库
+            int depotNum = buffer.getInt();
+            ArrayList<Depot> depotList = new ArrayList<>(depotNum);
+            for (int i = 0; i < depotNum; i++) {
+                Depot depot = new Depot(buffer.getInt(), buffer.getDouble(), buffer.getDouble());
+                depot.setValidArcFence(readIntList(buffer));
+                depot.setSparseDistanceRow(readSparseRow(buffer));
+                depotList.add(depot);
+            }
+
+            // 3. 载具
+            int carrierNum = buffer.getInt();
+            ArrayList<Carrier> carrierList = new ArrayList<>(carrierNum);
+            for (int i = 0; i < carrierNum; i++) {
+                int index = buffer.getInt();
+                double capacity = buffer.getDouble();
+                double maxDistance = buffer.getDouble();
+                int depot = buffer.getInt();
+                double minRatioCapacity = buffer.getDouble();
+                carrierList.add(new Carrier(index, capacity, maxDistance, depot, minRatioCapacity));
+            }
+
+            // 4. 完整距离矩阵
+            DistanceMatrix distanceMatrix = readMatrix(buffer);
+            DistanceMatrix depotDistanceMatrix = readMatrix(buffer);
+            if (distanceMatrix != null) {
+                for (Fence fence : fenceList) {
+                    fence.setDistanceMatrix(distanceMatrix, fence.getIndex() - 1);
+                }
+            }
+            if (depotDistanceMatrix != null) {
+                for (int row = 0; row < depotList.size(); row++) {
+                    depotList.get(row).setDistanceMatrix(depotDistanceMatrix, row);
+                }
+            }
+
+            instance.getFences().setFenceList(fenceList);
+            instance.getFences().generateFenceIndexList();
+            instance.getDepots().setDepotList(depotList);
+            instance.getDepots().generateDepotIndexList();
+            instance.setDistanceMatrix(distanceMatrix);
+            instance.setDepotDistanceMatrix(depotDistanceMatrix);
+            instance.setCarrierList(carrierList);
+            instance.getCarriers().setCarrierList(carrierList);
+            return true;
+        }
+    }
+
+    private static void writeIntList(DataOutputStream out, List<Integer> values) throws IOException {
+        out.writeInt(values.size());
+        for (Integer value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static ArrayList<Integer> readIntList(MappedByteBuffer buffer) {
+        int size = buffer.getInt();
+        ArrayList<Integer> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(buffer.getInt());
+        }
+        return values;
+    }
+
+    private static void writeSparseRow(DataOutputStream out, SparseDistanceRow row) throws IOException {
+        if (row == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(row.size());
+        for (int target : row.getTargets()) {
+            out.writeInt(target);
+        }
+        for (double distance : row.getDistances()) {
+            out.writeDouble(distance);
+        }
+    }
+
+    private static SparseDistanceRow readSparseRow(MappedByteBuffer buffer) {
+        int size = buffer.getInt();
+        if (size < 0) {
+            return null;
+        }
+        int[] targets = new int[size];
+        double[] distances = new double[size];
+        buffer.asIntBuffer().get(targets);
+        buffer.position(buffer.position() + Integer.BYTES * size);
+        buffer.asDoubleBuffer().get(distances);
+        buffer.position(buffer.position() + Double.BYTES * size);
+        return new SparseDistanceRow(targets, distances);
+    }
+
+    private static void writeMatrix(DataOutputStream out, DistanceMatrix matrix) throws IOException {
+        if (matrix == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(matrix.getRowNum());
+        out.writeInt(matrix.getColNum());
+        out.writeBoolean(matrix.isFloatMode());
+        if (matrix.isFloatMode()) {
+            for (float value : matrix.getFloatValues()) {
+                out.writeFloat(value);
+            }
+        } else {
+            for (double value : matrix.getValues()) {
+                out.writeDouble(value);
+            }
+        }
+    }
+
+    private static DistanceMatrix readMatrix(MappedByteBuffer buffer) {
+        int rowNum = buffer.getInt();
+        if (rowNum < 0) {
+            return null;
+        }
+        int colNum = buffer.getInt();
+        boolean floatMode = buffer.get() != 0;
+        DistanceMatrix matrix = new DistanceMatrix(rowNum, colNum, floatMode);
+        if (floatMode) {
+            buffer.asFloatBuffer().get(matrix.getFloatValues());
+            buffer.position(buffer.position() + Float.BYTES * matrix.getFloatValues().length);
+        } else {
+            buffer.asDoubleBuffer().get(matrix.getValues());
+            buffer.position(buffer.position() + Double.BYTES * matrix.getValues().length);
+        }
+        return matrix;
+    }
+
+    private static String pointsFilePath() {
+        return Objects.equals(Constants.ALGO_MODE, "CG") ? Constants.allPointsFilePath : Constants.allPointsTestFilePath;
+    }
+
+    private static String candidateFilePath() {
+        return Objects.equals(Constants.ALGO_MODE, "CG") ? Constants.candidatePointsFilePath : Constants.candidatePointsTestFilePath;
+    }
+}
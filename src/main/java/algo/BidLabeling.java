@@ -9,9 +9,13 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static java.lang.Math.min;
-import static java.util.Collections.reverse;
 
 @Setter
 @Getter
@@ -28,26 +32,40 @@ public class BidLabeling {
     private final Boolean checkFlag = true; // 过程约束检查开关
     private Boolean outputFlag = false;     // 过程信息输出开关
     private Double timeRecord = 0.0;        // 算法耗时记录
+    private Boolean warmStartMode = Constants.WARM_START_MODE; // 是否跨轮保留标签（只重算检验数），否则每轮清空
+    private Boolean rcThresholdMode = Constants.RC_THRESHOLD_MODE; // 是否只保留检验数大于阈值的订单
+    private String bidirectionalSplit = Constants.BIDIRECTIONAL_SPLIT; // 前后向资源划分（"FIXED"/"MIDPOINT"）
+    private double midpoint = Constants.MAX_DISTANCE / 2.0; // MIDPOINT模式下的距离中点（每轮按前后向标签数调整）
+    private String dominanceRule = Constants.DOMINANCE_RULE; // 标签支配规则（"EXACT"/"PARETO"）
+    private Boolean ngRouteMode = Constants.NG_ROUTE_MODE;   // 是否启用ng-route松弛
+    private Boolean parallelPricingMode = Constants.PARALLEL_PRICING_MODE; // 是否按起点仓库并行定价
+    private Boolean parallelDirectionMode = Constants.PARALLEL_DIRECTION_MODE; // 是否前后向并发扩展（按仓库并行时不生效）
 
     // 统计与映射容器
     final HashMap<String, Integer> recordDict = new HashMap<>(); // 过滤原因统计
-    final HashMap<String, Order> visited2order = new HashMap<>(); // 节点集→最优订单映射（去重用）
-
-    // 标签容器
-    final List<List<Label>> labelPool; // 按【节点索引】存储标签（多节点多标签）
-    final PriorityQueue<Label> forwardLabelQueue;  // 前向标签优先级队列（多起点统一调度）
-    final PriorityQueue<Label> backwardLabelQueue; // 后向标签优先级队列（多起点统一调度）
-    final List<Label> forwardLabelPool;  // 前向标签待拼接池（虚拟节点触发后存入）
-    final List<Label> backwardLabelPool; // 后向标签待拼接池（虚拟节点触发后存入）
+    final HashMap<RouteKey, Order> visited2order = new HashMap<>(); // （起点仓库，节点集）→最优订单映射（去重用）
+
+    // 标号搜索工作单元（标签容器均在工作单元内）
+    final LabelingWorker labelingWorker;     // 串行模式：一个工作单元负责全部仓库
+    private List<LabelingWorker> depotWorkers; // 并行模式：每个起点仓库一个工作单元
+    private LabelingWorker heuristicWorker;    // 启发式定价：一个工作单元负责全部仓库，只扩展启发式邻居
+    private List<List<Integer>> heuristicArcs; // 各围栏的启发式邻居（边际检验数最高的heuristicNeighbourNum个可达围栏 + 999虚拟节点）
+    private boolean heuristicArcsStale = true; // 对偶更新后启发式邻居需重建
+    private Integer heuristicNeighbourNum = Constants.HEURISTIC_NEIGHBOUR_NUM; // 启发式定价中每个标签扩展的后继数上限
+    private List<LabelingWorker> directionWorkers; // 前后向并发模式：前向、后向各一个工作单元
+    private JoinStage directionJoinStage;          // 前后向并发模式：两个工作单元共享的并发拼接阶段
+    private final int maxFenceIndex;     // 最大围栏索引（位集宽度）
+    private long[] ngMemoryMasks;       // 各节点ng邻域的定长位集（ng-route模式下约束标签记忆）
     private HashMap<Integer, Integer> labelDepotRecorder = new HashMap<>();
-    private final Map<Integer, Integer> depotExpandCount = new HashMap<>();
 
     // 结果容器与辅助组件
-    private List<Order> orderPool = new ArrayList<>(); // 最终订单池
+    private final OrderPool orderPool = new OrderPool(Integer.MAX_VALUE); // 最终订单池（按检验数保留最优订单，容量每轮按orderLimit设置）
+    private volatile int orderPoolSize;                // 订单池大小（供各工作单元无锁判断订单数量上限）
     private final List<Carrier> carrierList;           // 车型列表（原代码已引用）
     private final LoadingAlgorithm loadingAlgorithm;   // 装卸方案求解器（原代码已引用）
     private final double dual_multiplier;
     private HashMap<String, Double> dualsOfRLMP; // 当前对偶信息
+    private double maxFenceValue; // 当前对偶下围栏单位价值的最大正值（用于乐观补全上界）
 
     // 算法运行状态
     private int startTime;  // 算法开始时间（秒级）
@@ -65,32 +83,60 @@ public class BidLabeling {
         this.dual_multiplier = Constants.DUAL_MULTIPLIER;
         this.loadingAlgorithm = new LoadingAlgorithm(this);
 
-        // 2. 初始化标签容器（关键：labelPool按节点数量初始化，避免索引越界）
-        this.labelPool = new ArrayList<>();
-        for (int i = 0; i < fences.getFenceNum(); i++) {
-            this.labelPool.add(new ArrayList<>()); // 每个节点对应一个标签列表
+        // 2. 已访问集合按最大围栏索引定宽
+        int maxFenceIndex = fences.getFenceNum();
+        for (Integer fenceIndex : fences.getFenceIndexList()) {
+            maxFenceIndex = Math.max(maxFenceIndex, fenceIndex);
         }
+        this.maxFenceIndex = maxFenceIndex;
 
-        // 3. 初始化标签队列（优先级队列：按自定义规则排序，优先扩展优质标签）
-        this.forwardLabelQueue = new PriorityQueue<>(new LabelComparator(depotExpandCount));
-        this.backwardLabelQueue = new PriorityQueue<>(new LabelComparator(depotExpandCount));
-        // 4. 初始化标签待拼接池（虚拟节点触发后存储待拼接标签）
-        this.forwardLabelPool = new ArrayList<>();
-        this.backwardLabelPool = new ArrayList<>();
+        // 3. 串行模式的工作单元（标签存储区、支配池、按仓库轮转的标签队列、待拼接池）
+        this.labelingWorker = new LabelingWorker(this, depots.getDepotIndexes(), this.generateDepotWeights());
 
-        // 5. 调用初始化方法
+        // 4. 调用初始化方法
         this.initialize();
         System.out.println("算法初始化完成！");
     }
 
+    /* 仓库调度权重：ROUND_ROBIN下均为1；WEIGHTED下按仓库可达围栏数相对最少者的倍数取整（至少为1） */
+    private int[] generateDepotWeights() {
+        List<Integer> depotIndexes = depots.getDepotIndexes();
+        int[] weights = new int[depotIndexes.size()];
+        Arrays.fill(weights, 1);
+        if (!Objects.equals(Constants.DEPOT_SCHEDULE_POLICY, "WEIGHTED")) {
+            return weights;
+        }
+        int minArcNum = Integer.MAX_VALUE;
+        for (Integer depotIdx : depotIndexes) {
+            int arcNum = depots.getDepot(depotIdx).getValidArcFence().size();
+            if (arcNum > 0) {
+                minArcNum = Math.min(minArcNum, arcNum);
+            }
+        }
+        for (int slot = 0; slot < depotIndexes.size(); slot++) {
+            int arcNum = depots.getDepot(depotIndexes.get(slot)).getValidArcFence().size();
+            if (arcNum > 0) {
+                weights[slot] = Math.max(1, (int) Math.round((double) arcNum / minArcNum));
+            }
+        }
+        return weights;
+    }
+
     /* 初始化与预处理：仅保留通用逻辑（虚拟节点、异构距离计算），多起点标签初始化移至专用方法 */
     private void initialize() {
+        int wordNum = VisitedSet.wordNum(maxFenceIndex);
+        this.ngMemoryMasks = new long[(maxFenceIndex + 1) * wordNum];
         for (Integer i : fences.getFenceIndexList()) {
             Fence fenceI = fences.getFence(i);
             for (Integer j : fenceI.getVaildArcFence()) {
                 double currentDist = fenceI.getDistance(j);
                 fenceI.setNearestDiffLabelDist(min(fenceI.getNearestDiffLabelDist(), currentDist));
             }
+            // ng邻域需在追加999虚拟节点前生成
+            fenceI.generateNgNeighbourhood(Constants.NG_NEIGHBOURHOOD_SIZE);
+            for (Integer j : fenceI.getNgNeighbourhood()) {
+                VisitedSet.add(this.ngMemoryMasks, i * wordNum, j);
+            }
             fenceI.addFakeDepot();
         }
 
@@ -104,23 +150,91 @@ public class BidLabeling {
         }
     }
 
+    /* 启发式邻居（每轮随对偶值更新）：按扩展到邻居的边际检验数（邻居配送量×单位价值 - 弧长×单位距离成本）
+       从大到小取前heuristicNeighbourNum个可达围栏，末尾保留999虚拟节点用于拼接；标签扩展时直接使用，无需逐标签排序 */
+    private void generateHeuristicArcs() {
+        if (this.heuristicArcs == null) {
+            this.heuristicArcs = new ArrayList<>(maxFenceIndex + 1);
+            for (int i = 0; i <= maxFenceIndex; i++) {
+                this.heuristicArcs.add(List.of());
+            }
+        }
+        int neighbourNum = Math.max(0, this.heuristicNeighbourNum);
+        int[] bestNodes = new int[neighbourNum];
+        double[] bestScores = new double[neighbourNum];
+        for (Integer i : fences.getFenceIndexList()) {
+            Fence fenceI = fences.getFence(i);
+            // 插入法保留得分最高的neighbourNum个邻居（按得分降序）
+            int bestNum = 0;
+            for (Integer j : fenceI.getVaildArcFence()) {
+                if (j == 999) {
+                    continue;
+                }
+                Fence fenceJ = fences.getFence(j);
+                double score = fenceJ.getDeliverDemand() * fenceJ.getFenceValue()
+                        - fenceI.getDistance(j) * Constants.DELIVER_COST_PER_METER;
+                int pos = bestNum;
+                while (pos > 0 && bestScores[pos - 1] < score) {
+                    pos--;
+                }
+                if (pos >= neighbourNum) {
+                    continue;
+                }
+                int last = Math.min(bestNum, neighbourNum - 1);
+                System.arraycopy(bestNodes, pos, bestNodes, pos + 1, last - pos);
+                System.arraycopy(bestScores, pos, bestScores, pos + 1, last - pos);
+                bestNodes[pos] = j;
+                bestScores[pos] = score;
+                bestNum = last + 1;
+            }
+            List<Integer> arcs = new ArrayList<>(bestNum + 1);
+            for (int k = 0; k < bestNum; k++) {
+                arcs.add(bestNodes[k]);
+            }
+            arcs.add(999);
+            this.heuristicArcs.set(i, arcs);
+        }
+    }
+
     /* 算法主体 */
     public List<Order> solve(HashMap<String, Double> dualsOfRLMP) {
+        return this.solve(dualsOfRLMP, false);
+    }
+
+    /* 定价：heuristic为true时只在启发式邻居上搜索（快速但不完整），否则进行完整的双向标号搜索 */
+    public List<Order> solve(HashMap<String, Double> dualsOfRLMP, boolean heuristic) {
+        this.updateDuals(dualsOfRLMP);
+        return this.price(heuristic);
+    }
+
+    /* 读入新一轮对偶值：更新围栏价值并重算订单池检验数；同一轮对偶下的多级定价共用，每轮只调用一次 */
+    public void updateDuals(HashMap<String, Double> dualsOfRLMP) {
+        this.dualsOfRLMP = dualsOfRLMP;
+        this.updateFenceValue(dualsOfRLMP);
+    }
+
+    /* 按当前对偶值定价（需先调用updateDuals）；只有完整搜索的标签统计参与MIDPOINT中点调整 */
+    public List<Order> price(boolean heuristic) {
         // 运行初始化
         this.startTime = CommonUtils.currentTimeInSecond();
         this.bestObj = 0.0;
         this.timeRecord = 0.0;
-        this.dualsOfRLMP = dualsOfRLMP;
-        // 更新围栏价值
-        this.updateFenceValue(dualsOfRLMP);
         // 若初始orderPool超出orderLimit直接输出
-        if (this.orderPool.size() >= this.orderLimit) {
+        this.orderPool.setCapacity((int) Math.min(Integer.MAX_VALUE, (long) this.orderLimit * Constants.ORDER_POOL_CAPACITY_RATIO));
+        this.orderPoolSize = this.orderPool.size();
+        if (this.orderPoolSize >= this.orderLimit) {
             return generateOutputOrders();
         }
         // 双向标号搜索
-        this.bidirectionalSearch();
-        // 排序结果
-        this.orderPool.sort(CommonUtils.dualComparator);
+        int forwardLabelNum = this.recordDict.getOrDefault("labels_F", 0);
+        int backwardLabelNum = this.recordDict.getOrDefault("labels_B", 0);
+        if (heuristic) {
+            this.heuristicSearch();
+        } else {
+            this.bidirectionalSearch();
+            this.updateMidpoint(this.recordDict.getOrDefault("labels_F", 0) - forwardLabelNum,
+                    this.recordDict.getOrDefault("labels_B", 0) - backwardLabelNum);
+        }
         // 展示结果
         if (this.outputFlag) {
             this.displayRecordDict();
@@ -131,18 +245,6 @@ public class BidLabeling {
     }
 
     /* 输出信息函数 */
-    private void displayIterationInformation(Integer iterationCnt) {
-        double obj = (double) Math.round(this.bestObj * 10) / 10;
-        double timeRecord = (double) Math.round(this.timeRecord * 10) / 10;
-        double timeCost = (double) Math.round((double) (CommonUtils.currentTimeInSecond() - this.startTime) * 10) / 10;
-        System.out.println("iterationCnt: " + iterationCnt + ", forwardPoolSize: " + this.forwardLabelPool.size()
-                + ", backwardPoolSize: " + this.backwardLabelPool.size()
-                + ", forwardQueueSize: " + this.forwardLabelQueue.size()
-                + ", backwardQueueSize: " + this.backwardLabelQueue.size()
-                + ", orderPoolSize: " + this.orderPool.size()
-                + ", obj: " + obj + ", timeRecord: " + timeRecord + "(" + timeCost + ")");
-    }
-
     public void displayRecordDict() {
         System.out.println("recordDict:");
         for (String key : this.recordDict.keySet()) {
@@ -152,7 +254,7 @@ public class BidLabeling {
 
     public void displayOrders() {
         System.out.println("bidLabeling orders:");
-        CommonUtils.displayOrders(this.orderPool);
+        CommonUtils.displayOrders(this.orderPool.toSortedList());
     }
 
     public void displayTimeRecord() {
@@ -166,317 +268,205 @@ public class BidLabeling {
             Fence fence = fences.getFence(fenceIndex);
             fence.setFenceValue(fence.getOriginalFenceValue() - dualsOfRLMP.get(fence.getConstName()) * dual_multiplier);
         }
-
-        for (Order order : this.orderPool) {
-            order.setReducedCost(PriceCalculator.calculateRC(order, dualsOfRLMP));
+        this.maxFenceValue = 0.0;
+        for (Integer fenceIndex : fences.getFenceIndexList()) {
+            this.maxFenceValue = Math.max(this.maxFenceValue, fences.getFence(fenceIndex).getFenceValue());
         }
 
-        orderPool.sort(CommonUtils.dualComparator);
-    }
-
-    /* 双向标号搜索 - 适配多真实起点仓库+全卸点（强制返回起点仓库） */
-    private void bidirectionalSearch() {
-        int iterationCnt = 0;
-        // 初始化：通过Depots类获取所有仓库，创建前向/后向标签
-        initializeMultiDepotUnloadingLabels();
-
-        while (true) {
-            // 前向标号搜索（统一队列，按潜力调度）
-            if (!forwardLabelQueue.isEmpty()) {
-                Label label = forwardLabelQueue.poll();
-                this.labelExpand(label);
-            }
-            // 后向标号搜索（统一队列）
-            if (!backwardLabelQueue.isEmpty()) {
-                Label label = backwardLabelQueue.poll();
-                this.labelExpand(label);
-            }
+        // 启发式邻居依赖围栏价值，标记为过期，在本轮首次启发式定价时重建
+        this.heuristicArcsStale = true;
 
-            // 完整结束条件: 前后向队列均为空
-            if (forwardLabelQueue.isEmpty() && backwardLabelQueue.isEmpty()) {
-                displayIterationInformationIfNecessary(iterationCnt);
-                break;
-            }
-            // 提前结束条件：超时或达到订单数量上限
-            if (CommonUtils.currentTimeInSecond() - this.startTime > this.timeLimit
-                    || this.orderPool.size() >= this.orderLimit) {
-                displayIterationInformationIfNecessary(iterationCnt);
-                break;
-            }
-            // 定期输出迭代信息
-            iterationCnt += 1;
-            if (iterationCnt % 100 == 0) {
-                System.out.println("刷新队列！当前迭代次数：" + iterationCnt);
-                refreshQueues(); // 刷新前后向队列
-            }
-            if (iterationCnt % Constants.OUTPUT_INTERVAL == 0) {
-                displayIterationInformationIfNecessary(iterationCnt);
+        this.orderPool.updateReducedCost(dualsOfRLMP);
+        // 阈值模式：上轮遗留、在新对偶下不再改进主问题的订单移出池和去重映射，之后对偶变化时仍可被重新生成
+        if (this.rcThresholdMode) {
+            for (RouteKey routeKey : this.orderPool.removeNotAbove(Constants.RC_THRESHOLD)) {
+                this.visited2order.remove(routeKey);
             }
         }
     }
 
-    // 刷新队列：重新入队所有标签，强制更新优先级
-    private void refreshQueues() {
-        // 刷新前向队列
-        List<Label> forwardTemp = new ArrayList<>(forwardLabelQueue);
-        forwardLabelQueue.clear();
-        forwardLabelQueue.addAll(forwardTemp);
-
-        // 刷新后向队列
-        List<Label> backwardTemp = new ArrayList<>(backwardLabelQueue);
-        backwardLabelQueue.clear();
-        backwardLabelQueue.addAll(backwardTemp);
+    /* 动态中点：本轮前向标签明显多于后向时中点前移，反之后移，使下一轮两个方向的标签数趋于均衡 */
+    private void updateMidpoint(int forwardLabelNum, int backwardLabelNum) {
+        if (!Objects.equals(this.bidirectionalSplit, "MIDPOINT")) {
+            return;
+        }
+        double step = Constants.MAX_DISTANCE * Constants.MIDPOINT_STEP_RATIO;
+        if (forwardLabelNum > backwardLabelNum * 1.1) {
+            this.midpoint = Math.max(Constants.MAX_DISTANCE * 0.25, this.midpoint - step);
+        } else if (backwardLabelNum > forwardLabelNum * 1.1) {
+            this.midpoint = Math.min(Constants.MAX_DISTANCE * 0.75, this.midpoint + step);
+        }
     }
 
-    // 基于Depots类初始化多仓库标签（强制起点=终点）
-    private void initializeMultiDepotUnloadingLabels() {
-        for (Integer depotIdx : depots.getDepotIndexes()) {
-            // 前向初始标签
-            BitSet forwardTabu = new BitSet(fences.getFenceNum());
-            Label forwardInit = Label.generate(
-                    true,
-                    0,
-                    null,
-                    forwardTabu,
-                    0.0,
-                    0.0,
-                    0,
-                    depotIdx
-            );
-            forwardLabelQueue.add(forwardInit);
-
-            // 后向初始标签
-            BitSet backwardTabu = new BitSet(fences.getFenceNum());
-            Label backwardInit = Label.generate(
-                    false,
-                    0,
-                    null,
-                    backwardTabu,
-                    0.0,
-                    0.0,
-                    0,
-                    depotIdx
-            );
-            backwardLabelQueue.add(backwardInit);
+    /* 启发式标号搜索：单一工作单元、只扩展启发式邻居，每轮重新开始 */
+    private void heuristicSearch() {
+        if (this.heuristicArcsStale) {
+            this.generateHeuristicArcs();
+            this.heuristicArcsStale = false;
+        }
+        if (this.heuristicWorker == null) {
+            this.heuristicWorker = new LabelingWorker(this, depots.getDepotIndexes(), generateDepotWeights(), true);
         }
+        this.heuristicWorker.search();
+        this.timeRecord += this.heuristicWorker.drainStatistics(this.recordDict);
     }
 
-    // 标签扩展
-    private void labelExpand(Label label) {
-        Fence currentFence;
-        if (label.getParent() == null || label.getCurFence() == 0){
-            Depot depot = depots.getDepot(label.getStartDepotIdx());
-            currentFence = depot.depot2Fence(999);//创建一个999节点用于截断搜索
+    /* 双向标号搜索：串行模式下一个工作单元负责全部仓库；并行模式下每个起点仓库一个工作单元，在线程池中独立搜索 */
+    private void bidirectionalSearch() {
+        if (!this.parallelPricingMode && this.parallelDirectionMode) {
+            this.parallelDirectionSearch();
+            return;
+        }
+        List<LabelingWorker> workers = this.parallelPricingMode ? this.getDepotWorkers() : List.of(this.labelingWorker);
+        if (workers.size() == 1) {
+            workers.getFirst().search();
         } else {
-            currentFence = fences.getFence(label.getCurFence());
-        }
-        boolean isForward = label.isForward();
-        Integer startDepotIdx = label.getStartDepotIdx();
-        depotExpandCount.put(startDepotIdx, depotExpandCount.getOrDefault(startDepotIdx, 0) + 1);
-        System.out.println("扩展仓库：" + startDepotIdx + "，当前计数：" + depotExpandCount);
-        for (Integer nextNode : currentFence.getVaildArcFence()) {
-            // 如果是自己或者是禁止搜索的则跳过
-            if (label.getTabu().get(nextNode)) {
-                continue;
-            }
-            // 如果是999节点（目的是截断搜索），则判断是否能成单，并压入待匹配池
-            if (nextNode == 999 && label.getLoadedQuantity() >= Constants.MIN_CARRIER_LOAD) {
-                if (isForward) {
-                    for (Label labelI : this.backwardLabelPool) {
-                        this.labelConnect(label, labelI);
-                    }
-                    this.forwardLabelPool.add(label);
-                } else {
-                    for (Label labelI : this.forwardLabelPool) {
-                        this.labelConnect(labelI, label);
-                    }
-                    this.backwardLabelPool.add(label);
-                }
-            } else if (nextNode != 999) {
-                Fence nextFence = fences.getFence(nextNode);
-
-                // 访问次数约束（仅卸货点计数，归属仓库不计入）
-                int newVisitNum = label.getVisitNum() + 1;
-                if (newVisitNum > Constants.MAX_VISIT_NUM / 2) {
-                    continue;
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(Constants.PRICING_THREAD_NUM, workers.size()));
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (LabelingWorker worker : workers) {
+                    futures.add(executor.submit(worker::search));
                 }
-
-                // 卸货量约束（仅卸货点累加，归属仓库不计入）
-                double newLoad = label.getLoadedQuantity() + nextFence.getDeliverDemand();
-                if (newLoad > Constants.MAX_CAPACITY / 2.0) {
-                    continue;
-                }
-
-                // 距离约束（含归属仓库的距离计算）
-                double distance_ = currentFence.getDistance(nextNode) + label.getTravelDistance();
-                if (distance_ > Constants.MAX_DISTANCE / 2.0) {
-                    continue;
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        // 任一仓库搜索失败时不能返回部分结果（否则无改进列会被误判为收敛），中止其余线程并上抛
+                        throw new IllegalStateException("并行定价失败：" + e.getCause(), e.getCause());
+                    }
                 }
-
-                // 创建新标签（更新禁忌表）
-                BitSet tabu_ = (BitSet) label.getTabu().clone();
-                tabu_.set(nextNode, true);
-
-                Label newLabel = Label.generate(
-                        isForward,
-                        nextFence.getIndex(),
-                        label,
-                        tabu_,
-                        newLoad,
-                        distance_,
-                        newVisitNum,
-                        label.getStartDepotIdx()
-                );
-                this.dominantAdd(newLabel, nextNode);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                executor.shutdownNow();
             }
         }
+        for (LabelingWorker worker : workers) {
+            this.timeRecord += worker.drainStatistics(this.recordDict);
+        }
     }
 
-
-    private void dominantAdd(Label label, Integer fenceIdx) {
-        boolean isForward = label.isForward();
-        int li = 0;
-        while (li < this.labelPool.get(fenceIdx - 1).size()) {
-            Label labelI = this.labelPool.get(fenceIdx - 1).get(li);
-            if (this.dominantRule(label, labelI) == 1) {
-                this.labelPool.get(fenceIdx - 1).remove(li);
-            } else if (this.dominantRule(label, labelI) == -1) {
-                return;
-            } else {
-                li++;
+    // 并行模式的工作单元：每个起点仓库一个，首次使用时创建，之后跨轮次保留（与串行模式的标签保留行为一致）
+    private List<LabelingWorker> getDepotWorkers() {
+        if (this.depotWorkers == null) {
+            this.depotWorkers = new ArrayList<>();
+            for (Integer depotIdx : depots.getDepotIndexes()) {
+                this.depotWorkers.add(new LabelingWorker(this, List.of(depotIdx), new int[]{1}));
             }
         }
-        this.labelPool.get(fenceIdx - 1).add(label);
-        if (isForward) {
-            forwardLabelQueue.add(label);
-        } else {
-            backwardLabelQueue.add(label);
-        }
+        return this.depotWorkers;
     }
 
-    // 支配规则：较强的禁忌表完全一致才支配
-    private Integer dominantRule(Label label1, Label label2) {
-        if(!Objects.equals(label1.getStartDepotIdx(), label2.getStartDepotIdx())){
-            return 0;
-        }
-        BitSet tabuDominate = (BitSet) label1.getTabu().clone();
-        tabuDominate.xor(label2.getTabu());
-        if (tabuDominate.cardinality() == 0) {
-            if (label1.getTravelDistance() <= label2.getTravelDistance()) {
-                return 1;
-            } else {
-                return -1;
+    /* 前后向并发搜索：前向、后向工作单元各占一个线程扩展标签，到达截断节点的标签放入到达队列，
+       由拼接线程按到达顺序与对向已到达的标签拼接；两个方向均结束后发送结束标记，等待拼接线程处理完剩余标签
+       注意：两个方向的标签分属不同的存储区，EXACT支配只在同一方向内生效 */
+    private void parallelDirectionSearch() {
+        if (this.directionWorkers == null) {
+            int[] depotWeights = generateDepotWeights();
+            this.directionJoinStage = new JoinStage(this, true);
+            this.directionWorkers = List.of(
+                    new LabelingWorker(this, depots.getDepotIndexes(), depotWeights, true, this.directionJoinStage),
+                    new LabelingWorker(this, depots.getDepotIndexes(), depotWeights, false, this.directionJoinStage));
+        }
+        this.directionJoinStage.prepare();
+        this.directionJoinStage.clear();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            // 按完成顺序等待：拼接线程提前结束（只可能是失败）时立即上抛，不再等两个方向搜索完
+            ExecutorCompletionService<Object> completionService = new ExecutorCompletionService<>(executor);
+            Future<Object> joinFuture = completionService.submit(() -> {
+                this.directionJoinStage.consume();
+                return null;
+            });
+            for (LabelingWorker worker : this.directionWorkers) {
+                completionService.submit(worker::search, null);
             }
-        } else {
-            return 0;
+            int remainingSearches = this.directionWorkers.size();
+            while (remainingSearches > 0) {
+                Future<Object> future = completionService.take();
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    String stage = future == joinFuture ? "标签拼接失败：" : "前后向并发搜索失败：";
+                    throw new IllegalStateException(stage + e.getCause(), e.getCause());
+                }
+                if (future == joinFuture) {
+                    throw new IllegalStateException("标签拼接线程在搜索结束前退出");
+                }
+                remainingSearches--;
+            }
+            this.directionJoinStage.finish();
+            try {
+                joinFuture.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("标签拼接失败：" + e.getCause(), e.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        for (LabelingWorker worker : this.directionWorkers) {
+            this.timeRecord += worker.drainStatistics(this.recordDict);
         }
+        this.timeRecord += this.directionJoinStage.drainStatistics(this.recordDict);
     }
 
-    // 标签连接
-    private void labelConnect(Label forwardLabel, Label backwardLabel) {
-        // 1. 前后向标签归属仓库必须一致
-        Integer forwardBelongDepot = forwardLabel.getStartDepotIdx();
-        Integer backwardBelongDepot = backwardLabel.getStartDepotIdx();
-        if (!Objects.equals(forwardBelongDepot, backwardBelongDepot)) {
-            return;
-        }
+    // 提前结束条件：超时、达到订单数量上限或所在线程被中止（各工作单元每次迭代调用）
+    boolean isStopConditionMet() {
+        return CommonUtils.currentTimeInSecond() - this.startTime > this.timeLimit
+                || this.orderPoolSize >= this.orderLimit
+                || Thread.currentThread().isInterrupted();
+    }
 
-        // 2. 前向终点+后向起点
-        Fence forwardEnd = fences.getFence(forwardLabel.getCurFence());
-        Fence backwardStart = fences.getFence(backwardLabel.getCurFence());
+    // 根据路径经过点集筛除（访问围栏相同，但是顺序不同，只保留短的）：已有同仓库且不更长的订单时无需求解装卸方案
+    synchronized boolean isRouteCandidate(RouteKey routeKey, double totalDist) {
+        Order sameNodeSetOrder = this.visited2order.get(routeKey);
+        return sameNodeSetOrder == null || totalDist < sameNodeSetOrder.getDistance();
+    }
 
-        // 检查弧是否存在（前向终点→后向起点）
-        if (!forwardEnd.getVaildArcFence().contains(backwardStart.getIndex())) {
+    // 加入订单池：替换同一起点仓库、同一经过点集下被支配的订单（并行模式下可能已有其他线程加入了更优订单，需重新检查）
+    synchronized void addOrder(RouteKey routeKey, Order order) {
+        // 阈值模式下不改进主问题的订单不入池，也不记录去重映射
+        if (this.rcThresholdMode && order.getReducedCost() <= Constants.RC_THRESHOLD) {
             return;
         }
-
-        // 3. 距离检查
-        double connectDist = forwardEnd.getDistance(backwardStart.getIndex());
-        double totalDist = forwardLabel.getTravelDistance() + connectDist + backwardLabel.getTravelDistance();
-        if (totalDist > Constants.MAX_DISTANCE) {
+        Order sameNodeSetOrder = this.visited2order.get(routeKey);
+        if (sameNodeSetOrder != null && order.getDistance() >= sameNodeSetOrder.getDistance()) {
             return;
         }
-
-        // 4. 卸货量和访问次数校验
-        double totalLoaded = forwardLabel.getLoadedQuantity() + backwardLabel.getLoadedQuantity();
-        if (totalLoaded > Constants.MAX_CAPACITY) {
+        // 同一键下路径被支配的工单在池中原地替换；池满且检验数不优于池中最差订单时不加入
+        RouteKey worstKey = this.orderPool.peekWorstKey();
+        if (!this.orderPool.add(routeKey, order)) {
             return;
         }
-
-        int totalVisitNum = forwardLabel.getVisitNum() + backwardLabel.getVisitNum();
-        if (totalVisitNum > Constants.MAX_VISIT_NUM) {
-            return;
+        // 被淘汰的订单同时移出去重映射（映射只保留池中订单与已输出到主问题的订单，内存有界）
+        if (worstKey != null && !this.orderPool.contains(worstKey)) {
+            this.visited2order.remove(worstKey);
         }
+        this.visited2order.put(routeKey, order);
+        this.orderPoolSize = this.orderPool.size();
+        this.bestObj = Math.max(this.bestObj, order.getOriginalPrice());
+    }
 
-        // 5. 重复节点校验（仅允许归属仓库重复，卸货点禁止重复）
-        BitSet forwardVisited = forwardLabel.getTabu();
-        BitSet backwardVisited = backwardLabel.getTabu();
-        BitSet intersection = (BitSet) forwardVisited.clone();
-        intersection.and(backwardVisited);
-
-        if (!intersection.isEmpty()) {
-            return;
-        }
-        //TODO:利润剪枝
-
-        // 6. 构建闭环路径（起点仓库→卸货点→起点仓库）
-        List<Integer> forwardRoute = forwardLabel.getFenceIndexList();
-        List<Integer> backwardRoute = backwardLabel.getFenceIndexList();
-        reverse(backwardRoute);
-
-        ArrayList<Integer> fenceIndexList = new ArrayList<>();
-        fenceIndexList.addAll(forwardRoute);
-        fenceIndexList.addAll(backwardRoute);
-
-        // 删除第一个和最后一个元素
-        if (fenceIndexList.size() >= 2 && fenceIndexList.getFirst() == 0 && fenceIndexList.getLast() == 0) {// 避免空列表或只有一个元素时索引越界
-            fenceIndexList.removeFirst(); // 删除第一个元素
-            fenceIndexList.removeLast(); // 删除最后一个元素
-        } else if (!fenceIndexList.isEmpty()) { // 只有一个元素时清空列表
-            fenceIndexList.clear();
-        }
-
-        // 构造完整路径
-        Route route = Route.generate(
-                fences,
-                totalDist,
-                totalVisitNum,
-                fenceIndexList,
-                forwardBelongDepot,
-                totalLoaded);
-
-        // 根据路径经过点集筛除（访问围栏相同，但是顺序不同，只保留短的）
-        Order sameNodeSetOrder = this.visited2order.getOrDefault(route.getRouteVitedString(), null);
-        if (sameNodeSetOrder != null) {
-            if (totalDist >= sameNodeSetOrder.getDistance() && Objects.equals(sameNodeSetOrder.getDepot(), forwardBelongDepot)) {
-                return;
+    // 归还未输出到主问题的订单（如被丢弃的启发式批次）：放回订单池，去重映射保持不变，之后与新订单一起按检验数输出
+    public synchronized void returnOrders(List<Order> orders) {
+        int wordNum = VisitedSet.wordNum(this.maxFenceIndex);
+        for (Order order : orders) {
+            RouteKey routeKey = new RouteKey(order.getDepot(), order.getFenceList(), wordNum);
+            RouteKey worstKey = this.orderPool.peekWorstKey();
+            if (!this.orderPool.add(routeKey, order)) {
+                this.visited2order.remove(routeKey);
+                continue;
+            }
+            if (worstKey != null && !this.orderPool.contains(worstKey)) {
+                this.visited2order.remove(worstKey);
             }
         }
-
-        // 求解装卸及车型方案
-        int startTime = CommonUtils.currentTimeInSecond();
-        Order order = this.loading(route);
-        this.timeRecord += CommonUtils.currentTimeInSecond() - startTime;
-
-        if (order == null) {
-            return;
-        }
-
-        if (order.getOriginalPrice() < Constants.OBJ_LB) {
-            return;
-        }
-
-        order.setReducedCost(PriceCalculator.calculateRC(order, dualsOfRLMP));
-        // 连接成功
-        if (sameNodeSetOrder != null) {
-            this.orderPool.remove(sameNodeSetOrder); // 去除路径被支配的工单
-        }
-        this.visited2order.put(route.getRouteVitedString(), order);
-        this.orderPool.add(order);
-        this.bestObj = Math.max(this.bestObj, order.getOriginalPrice());
+        this.orderPoolSize = this.orderPool.size();
     }
 
-    private Order loading(Route route) {
+    Order loading(Route route) {
         Order order = this.loadingAlgorithm.solve(route);
 
         if (order == null) {
@@ -492,14 +482,6 @@ public class BidLabeling {
     }
 
     private List<Order> generateOutputOrders() {
-        List<Order> orders = orderPool.subList(0, min(orderLimit, orderPool.size()));
-        orderPool = orderPool.subList(min(orderLimit, orderPool.size()), orderPool.size());
-        return orders;
-    }
-
-    public void displayIterationInformationIfNecessary(int iterationCnt) {
-        if (this.outputFlag) {
-            this.displayIterationInformation(iterationCnt);
-        }
+        return this.orderPool.pollBest(this.orderLimit);
     }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package algo;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 多仓库标签调度器：每个起点仓库一个LabelHeap，按轮转（可加权）方式选择下一个扩展的仓库
+ * 仓库内按LabelComparator排序（O(log n_d)），仓库间的平衡由调度器负责，不再依赖比较器
+ * 每个仓库在一轮定价中的扩展次数可设上限，达到上限的仓库不再被选中
+ */
+public class DepotLabelScheduler {
+    private final int[] depotIndexes;  // 槽位 → 仓库索引
+    private final int[] slotLookup;    // slotLookup[仓库索引 - lookupOffset] → 槽位
+    private final int lookupOffset;
+    private final LabelHeap[] heaps;
+    private final int[] weights;       // 每次轮到该仓库时连续扩展的标签数
+    private final int[] expandCount;   // 本轮定价中各仓库已扩展的标签数
+    private final LabelArena labelArena;
+    private final int maxExpandPerDepot; // 单轮定价中每个仓库的扩展上限（Constants.MAX_DEPOT_EXPANSIONS）
+    private int cursor;                // 当前轮到的槽位
+    private int servedInTurn;          // 当前槽位在本次轮到时已扩展的标签数
+    private int size;
+
+    public DepotLabelScheduler(LabelArena labelArena, LabelComparator comparator, List<Integer> depotIndexes,
+                               int[] weights, int maxExpandPerDepot) {
+        this.labelArena = labelArena;
+        this.depotIndexes = depotIndexes.stream().mapToInt(Integer::intValue).toArray();
+        int minIndex = Integer.MAX_VALUE;
+        int maxIndex = Integer.MIN_VALUE;
+        for (int depotIdx : this.depotIndexes) {
+            minIndex = Math.min(minIndex, depotIdx);
+            maxIndex = Math.max(maxIndex, depotIdx);
+        }
+        this.lookupOffset = this.depotIndexes.length == 0 ? 0 : minIndex;
+        this.slotLookup = new int[this.depotIndexes.length == 0 ? 0 : maxIndex - minIndex + 1];
+        this.heaps = new LabelHeap[this.depotIndexes.length];
+        for (int slot = 0; slot < this.depotIndexes.length; slot++) {
+            this.slotLookup[this.depotIndexes[slot] - lookupOffset] = slot;
+            this.heaps[slot] = new LabelHeap(comparator);
+        }
+        this.weights = weights;
+        this.expandCount = new int[this.depotIndexes.length];
+        this.maxExpandPerDepot = maxExpandPerDepot;
+    }
+
+    public void add(int label) {
+        heaps[slotLookup[labelArena.getDepot(label) - lookupOffset]].add(label);
+        size++;
+    }
+
+    /* 是否还有可扩展的标签（已达扩展上限的仓库不计） */
+    public boolean hasNext() {
+        for (int slot = 0; slot < heaps.length; slot++) {
+            if (isServable(slot)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* 轮转选择仓库并弹出其最优标签；没有可扩展标签时返回LabelArena.NO_PARENT */
+    public int poll() {
+        for (int tried = 0; tried <= heaps.length; tried++) {
+            if (heaps.length == 0) {
+                break;
+            }
+            if (servedInTurn >= weights[cursor] || !isServable(cursor)) {
+                cursor = (cursor + 1) % heaps.length;
+                servedInTurn = 0;
+                continue;
+            }
+            servedInTurn++;
+            expandCount[cursor]++;
+            size--;
+            return heaps[cursor].poll();
+        }
+        return LabelArena.NO_PARENT;
+    }
+
+    // 新一轮定价开始时清零各仓库扩展计数
+    public void resetExpandCount() {
+        Arrays.fill(expandCount, 0);
+        cursor = 0;
+        servedInTurn = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        for (LabelHeap heap : heaps) {
+            heap.clear();
+        }
+        size = 0;
+    }
+
+    private boolean isServable(int slot) {
+        return !heaps[slot].isEmpty() && expandCount[slot] < maxExpandPerDepot;
+    }
+}
@@ -1,6 +1,7 @@
 package algo;
 
 import Utils.GurobiUtils;
+import baseinfo.DistanceMatrix;
 import com.gurobi.gurobi.*;
 import impl.*;
 import lombok.Getter;
@@ -209,8 +210,8 @@ public class GurobiSolve {
 
         // 2. 总运输成本：∑(k∈K) ∑(i∈V) ∑(j∈V) (Zijk × 路径i→j距离 × 单位距离成本) → 减成本，系数为负
         double unitTransCost = Constants.DELIVER_COST_PER_METER; // 单位距离运输成本（元/米）
-        List<HashMap<Integer, Double>> depotToFenceDist = instance.getDepotDistanceMatrix(); // 仓库-围栏距离
-        List<List<Double>> fenceToFenceDist = instance.getDistanceMatrix(); // 围栏-围栏距离
+        DistanceMatrix depotToFenceDist = instance.getDepotDistanceMatrix(); // 仓库-围栏距离
+        DistanceMatrix fenceToFenceDist = instance.getDistanceMatrix(); // 围栏-围栏距离
 
         for (int k : K) {
             for (int i : V) {
@@ -224,22 +225,20 @@ public class GurobiSolve {
                     double dist = 0.0;
                     try {
                         if (M.contains(i) && N.contains(j)) {
-                            // 仓库i → 围栏j(仓库使用的hashmap存的是1开始的围栏编号)
+                            // 仓库i → 围栏j（距离矩阵列下标从0开始，对应围栏j-1）
                             int depotIdx = -i - 1;
-                            int fenceIdx = j;
-                            HashMap<Integer, Double> distMap = depotToFenceDist.get(depotIdx);
-                            dist = distMap.get(fenceIdx) * 1000; // 千米转米
+                            int fenceIdx = j - 1;
+                            dist = depotToFenceDist.get(depotIdx, fenceIdx) * 1000; // 千米转米
                         } else if (N.contains(i) && M.contains(j)) {
                             // 围栏i → 仓库j
-                            int fenceIdx = i;
+                            int fenceIdx = i - 1;
                             int depotIdx = -j - 1;
-                            HashMap<Integer, Double> distMap = depotToFenceDist.get(depotIdx);
-                            dist = distMap.get(fenceIdx) * 1000;
+                            dist = depotToFenceDist.get(depotIdx, fenceIdx) * 1000;
                         } else if (N.contains(i) && N.contains(j)) {
-                            // 围栏i → 围栏j（围栏存的List（List）是从0开始的索引）
+                            // 围栏i → 围栏j（距离矩阵是从0开始的索引）
                             int fenceI = i - 1;
                             int fenceJ = j - 1;
-                            dist = fenceToFenceDist.get(fenceI).get(fenceJ) * 1000;
+                            dist = fenceToFenceDist.get(fenceI, fenceJ) * 1000;
                         }
                     } catch (Exception e) {
                         System.err.printf("路径%d→%d（载具%d）距离计算失败，按0处理：%s%n", i, j, k, e.getMessage());
@@ -627,8 +626,8 @@ public class GurobiSolve {
      * 逻辑：载具k的行驶距离 ≤ 最大行驶距离
      */
     private void addVehicleDistanceConstraints() throws GRBException {
-        List<HashMap<Integer, Double>> depotToFenceDist = instance.getDepotDistanceMatrix(); // 仓库-围栏距离
-        List<List<Double>> fenceToFenceDist = instance.getDistanceMatrix(); // 围栏-围栏距离
+        DistanceMatrix depotToFenceDist = instance.getDepotDistanceMatrix(); // 仓库-围栏距离
+        DistanceMatrix fenceToFenceDist = instance.getDistanceMatrix(); // 围栏-围栏距离
         for (int k : K) {
             GRBLinExpr expr = new GRBLinExpr();
             String constrName = String.format("distance_k%d", k);
@@ -642,22 +641,20 @@ public class GurobiSolve {
                     // 计算路径i→j的距离（千米）
                     double dist = 0.0;
                     if (M.contains(i) && N.contains(j)) {
-                        // 仓库i → 围栏j(仓库使用的hashmap存的是1开始的围栏编号)
+                        // 仓库i → 围栏j（距离矩阵列下标从0开始，对应围栏j-1）
                         int depotIdx = -i - 1;
-                        int fenceIdx = j;
-                        HashMap<Integer, Double> distMap = depotToFenceDist.get(depotIdx);
-                        dist = distMap.get(fenceIdx); // 千米
+                        int fenceIdx = j - 1;
+                        dist = depotToFenceDist.get(depotIdx, fenceIdx); // 千米
                     } else if (N.contains(i) && M.contains(j)) {
                         // 围栏i → 仓库j
-                        int fenceIdx = i;
+                        int fenceIdx = i - 1;
                         int depotIdx = -j - 1;
-                        HashMap<Integer, Double> distMap = depotToFenceDist.get(depotIdx);
-                        dist = distMap.get(fenceIdx);
+                        dist = depotToFenceDist.get(depotIdx, fenceIdx);
                     } else if (N.contains(i) && N.contains(j)) {
-                        // 围栏i → 围栏j（围栏存的List（List）是从0开始的索引）
+                        // 围栏i → 围栏j（距离矩阵是从0开始的索引）
                         int fenceI = i - 1;
                         int fenceJ = j - 1;
-                        dist = fenceToFenceDist.get(fenceI).get(fenceJ);
+                        dist = fenceToFenceDist.get(fenceI, fenceJ);
                     }
                     expr.addTerm(dist, zVar);
                 }
@@ -963,8 +960,8 @@ public class GurobiSolve {
      */
     private double calculateVehicleTotalDistance(int k) throws GRBException {
         double totalDist = 0;
-        List<HashMap<Integer, Double>> depotToFenceDist = instance.getDepotDistanceMatrix();
-        List<List<Double>> fenceToFenceDist = instance.getDistanceMatrix();
+        DistanceMatrix depotToFenceDist = instance.getDepotDistanceMatrix();
+        DistanceMatrix fenceToFenceDist = instance.getDistanceMatrix();
 
         for (int i : V) {
             for (int j : V) {
@@ -980,51 +977,49 @@ public class GurobiSolve {
                     if (M.contains(i) && N.contains(j)) {
                         // 1. 仓库i → 围栏j：
                         int depotIdx = -i - 1;
-                        int fenceIdx = j;
+                        int fenceIdx = j - 1;
 
                         // 校验仓库索引
                         if (depotIdx < 0 || depotIdx >= numDepots) {
                             throw new IndexOutOfBoundsException("仓库索引无效：" + depotIdx + "（仓库数：" + numDepots + "）");
                         }
-                        // 校验仓库对应的距离数组是否存在
-                        if (depotIdx >= depotToFenceDist.size()) {
+                        // 校验仓库对应的距离行是否存在
+                        if (depotIdx >= depotToFenceDist.getRowNum()) {
                             throw new IndexOutOfBoundsException("仓库" + depotIdx + "在depotToFenceDist中无数据");
                         }
-                        HashMap<Integer, Double> distArray = depotToFenceDist.get(depotIdx);
 
                         // 校验围栏索引
                         if (fenceIdx < 0 || fenceIdx >= numFences) {
                             throw new IndexOutOfBoundsException("围栏索引无效：" + fenceIdx + "（围栏数：" + numFences + "）");
                         }
-                        // 校验围栏在距离数组中的索引
-                        if (fenceIdx >= distArray.size()) {
-                            throw new IndexOutOfBoundsException("仓库" + depotIdx + "到围栏" + fenceIdx + "的距离不存在（数组长度：" + distArray.size() + "）");
+                        // 校验围栏在距离矩阵中的列
+                        if (fenceIdx >= depotToFenceDist.getColNum()) {
+                            throw new IndexOutOfBoundsException("仓库" + depotIdx + "到围栏" + fenceIdx + "的距离不存在（列数：" + depotToFenceDist.getColNum() + "）");
                         }
 
                         // 距离
-                        dist = distArray.get(fenceIdx) * 1000;
+                        dist = depotToFenceDist.get(depotIdx, fenceIdx) * 1000;
 
                     } else if (N.contains(i) && M.contains(j)) {
                         // 2. 围栏i → 仓库j：
-                        int fenceIdx = i;
+                        int fenceIdx = i - 1;
                         int depotIdx = -j - 1;
 
                         // 校验仓库索引
                         if (depotIdx < 0 || depotIdx >= numDepots) {
                             throw new IndexOutOfBoundsException("仓库索引无效：" + depotIdx);
                         }
-                        if (depotIdx >= depotToFenceDist.size()) {
+                        if (depotIdx >= depotToFenceDist.getRowNum()) {
                             throw new IndexOutOfBoundsException("仓库" + depotIdx + "在depotToFenceDist中无数据");
                         }
-                        HashMap<Integer, Double> distArray = depotToFenceDist.get(depotIdx);
 
                         // 校验围栏索引
-                        if (fenceIdx < 0 || fenceIdx >= numFences || fenceIdx >= distArray.size()) {
-                            throw new IndexOutOfBoundsException("围栏索引无效：" + fenceIdx + "（数组长度：" + distArray.size() + "）");
+                        if (fenceIdx < 0 || fenceIdx >= numFences || fenceIdx >= depotToFenceDist.getColNum()) {
+                            throw new IndexOutOfBoundsException("围栏索引无效：" + fenceIdx + "（列数：" + depotToFenceDist.getColNum() + "）");
                         }
 
                         // 距离（米）
-                        dist = distArray.get(fenceIdx) * 1000;
+                        dist = depotToFenceDist.get(depotIdx, fenceIdx) * 1000;
 
                     } else if (N.contains(i) && N.contains(j)) {
                         // 3. 围栏i → 围栏j：
@@ -1034,15 +1029,14 @@ public class GurobiSolve {
                         if (fenceI < 0 || fenceI >= numFences || fenceJ < 0 || fenceJ >= numFences) {
                             throw new IndexOutOfBoundsException("围栏索引无效：" + fenceI + "→" + fenceJ);
                         }
-                        if (fenceI >= fenceToFenceDist.size()) {
+                        if (fenceI >= fenceToFenceDist.getRowNum()) {
                             throw new IndexOutOfBoundsException("围栏" + fenceI + "在fenceToFenceDist中无数据");
                         }
-                        List<Double> distList = fenceToFenceDist.get(fenceI);
-                        if (fenceJ >= distList.size()) {
+                        if (fenceJ >= fenceToFenceDist.getColNum()) {
                             throw new IndexOutOfBoundsException("围栏" + fenceI + "到" + fenceJ + "的距离不存在");
                         }
 
-                        dist = distList.get(fenceJ) * 1000; // 米
+                        dist = fenceToFenceDist.get(fenceI, fenceJ) * 1000; // 米
                     }
 
                     totalDist += dist;
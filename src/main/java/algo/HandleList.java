@@ -0,0 +1,49 @@
+package algo;
+
+import java.util.Arrays;
+
+/**
+ * 标签句柄列表：可增长的int数组，避免List<Integer>的装箱开销
+ */
+public class HandleList {
+    private int[] handles;
+    private int size;
+
+    public HandleList() {
+        this(8);
+    }
+
+    public HandleList(int initialCapacity) {
+        this.handles = new int[Math.max(initialCapacity, 1)];
+        this.size = 0;
+    }
+
+    public void add(int handle) {
+        if (size == handles.length) {
+            handles = Arrays.copyOf(handles, size * 2);
+        }
+        handles[size++] = handle;
+    }
+
+    public int get(int position) {
+        return handles[position];
+    }
+
+    // 删除指定位置的句柄（保持其余句柄的相对顺序）
+    public void removeAt(int position) {
+        System.arraycopy(handles, position + 1, handles, position, size - position - 1);
+        size--;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,45 @@
+package algo;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 待拼接标签：标签到达999截断节点时，从LabelArena中复制出拼接所需的全部信息（资源、已访问集合、路径）
+ * 复制后与标签存储区无关，可以安全地交给其他线程的拼接阶段使用
+ */
+@Getter
+class JoinLabel {
+    private final boolean forward;
+    private final int depot;
+    private final int node;
+    private final double distance;
+    private final double load;
+    private final int visitNum;
+    private final long[] visited;
+    private final List<Integer> fenceIndexList; // 起点仓库0在前，当前节点在后
+
+    private JoinLabel(boolean forward, int depot, int node, double distance, double load, int visitNum,
+                      long[] visited, List<Integer> fenceIndexList) {
+        this.forward = forward;
+        this.depot = depot;
+        this.node = node;
+        this.distance = distance;
+        this.load = load;
+        this.visitNum = visitNum;
+        this.visited = visited;
+        this.fenceIndexList = fenceIndexList;
+    }
+
+    static JoinLabel of(LabelArena labelArena, int handle) {
+        return new JoinLabel(
+                labelArena.isForward(handle),
+                labelArena.getDepot(handle),
+                labelArena.getNode(handle),
+                labelArena.getDistance(handle),
+                labelArena.getLoad(handle),
+                labelArena.getVisitNum(handle),
+                labelArena.copyVisited(handle),
+                labelArena.getFenceIndexList(handle));
+    }
+}
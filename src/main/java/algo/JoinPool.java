@@ -0,0 +1,68 @@
+package algo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * 待拼接标签池：按（起点仓库，末端围栏）分桶，桶内按距离升序、距离相同时按卸货量升序排列
+ * 拼接时只需访问同仓库且末端与对向末端之间有弧的桶，并可在距离超限时提前结束
+ */
+class JoinPool {
+    private final int maxFenceIndex;
+    private final HashMap<Integer, List<ArrayList<JoinLabel>>> depot2Buckets = new HashMap<>();
+    private int size = 0;
+
+    JoinPool(int maxFenceIndex) {
+        this.maxFenceIndex = maxFenceIndex;
+    }
+
+    // 有序插入：插在距离与卸货量均相同的标签之后，保持到达顺序
+    void add(JoinLabel label) {
+        List<ArrayList<JoinLabel>> buckets = this.depot2Buckets.computeIfAbsent(label.getDepot(), k -> {
+            List<ArrayList<JoinLabel>> list = new ArrayList<>(this.maxFenceIndex + 1);
+            for (int i = 0; i <= this.maxFenceIndex; i++) {
+                list.add(null);
+            }
+            return list;
+        });
+        ArrayList<JoinLabel> bucket = buckets.get(label.getNode());
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            buckets.set(label.getNode(), bucket);
+        }
+        int low = 0;
+        int high = bucket.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            JoinLabel other = bucket.get(mid);
+            if (other.getDistance() < label.getDistance()
+                    || (other.getDistance() == label.getDistance() && other.getLoad() <= label.getLoad())) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        bucket.add(low, label);
+        this.size++;
+    }
+
+    // 指定仓库、末端围栏的桶（不存在时返回空列表）
+    List<JoinLabel> get(int depot, int node) {
+        List<ArrayList<JoinLabel>> buckets = this.depot2Buckets.get(depot);
+        if (buckets == null || node < 0 || node > this.maxFenceIndex) {
+            return List.of();
+        }
+        ArrayList<JoinLabel> bucket = buckets.get(node);
+        return bucket == null ? List.of() : bucket;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        this.depot2Buckets.clear();
+        this.size = 0;
+    }
+}
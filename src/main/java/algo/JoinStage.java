@@ -0,0 +1,263 @@
+package algo;
+
+import Utils.CommonUtils;
+import Utils.PriceCalculator;
+import baseinfo.Constants;
+import impl.*;
+
+import java.util.*;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 标签拼接阶段：保存到达999截断节点的前后向待拼接标签，新标签到达时与对向池中已到达的标签拼接，再加入本向池
+ * 对向池按（起点仓库，末端围栏）分桶：前向标签只访问其末端后继围栏的桶，后向标签只访问其末端前驱围栏的桶，
+ * 桶内按距离升序，总距离超限后即停止扫描
+ * MIDPOINT模式下一条路径（k个围栏）只在唯一位置拼接：前向取前缀距离不超过中点的围栏数c，截断到[1, k-1]，
+ * 即只有跨越中点的弧、或某一半只含一个围栏时才拼接，避免同一路径在不同位置重复拼接
+ * 同步模式下由扩展线程直接调用；并发模式下扩展线程只把标签放入到达队列，由单独的拼接线程按到达顺序处理，
+ * 每对前后向标签恰好拼接一次
+ */
+class JoinStage {
+    private final BidLabeling bidLabeling;
+    private final Fences fences;
+    private final int wordNum;
+    final JoinPool forwardLabelPool;  // 前向标签待拼接池
+    final JoinPool backwardLabelPool; // 后向标签待拼接池
+    private final List<List<Integer>> predecessors; // 各围栏的前驱围栏（有弧指向该围栏），供后向标签查找拼接对象
+    private final long[] elementaryCheck; // 拼接后初等性检查的临时位集
+    private final LinkedBlockingQueue<Optional<JoinLabel>> arrivals; // 并发模式的到达队列，同步模式为null
+
+    // 统计（每轮搜索结束后汇总到BidLabeling）
+    private final HashMap<String, Integer> recordDict = new HashMap<>();
+    private double timeRecord = 0.0;
+
+    // 本轮搜索参数
+    private boolean ngRouteMode;
+    private HashMap<String, Double> dualsOfRLMP;
+    private boolean midpointMode;
+    private double midpoint;
+
+    JoinStage(BidLabeling bidLabeling, boolean concurrent) {
+        this.bidLabeling = bidLabeling;
+        this.fences = bidLabeling.getFences();
+        int maxFenceIndex = bidLabeling.getMaxFenceIndex();
+        this.wordNum = VisitedSet.wordNum(maxFenceIndex);
+        this.forwardLabelPool = new JoinPool(maxFenceIndex);
+        this.backwardLabelPool = new JoinPool(maxFenceIndex);
+        this.predecessors = new ArrayList<>(maxFenceIndex + 1);
+        for (int i = 0; i <= maxFenceIndex; i++) {
+            this.predecessors.add(new ArrayList<>());
+        }
+        for (Integer fenceIndex : fences.getFenceIndexList()) {
+            for (Integer nextIndex : fences.getFence(fenceIndex).getVaildArcFence()) {
+                if (nextIndex > 0 && nextIndex <= maxFenceIndex) {
+                    this.predecessors.get(nextIndex).add(fenceIndex);
+                }
+            }
+        }
+        this.elementaryCheck = new long[wordNum];
+        this.arrivals = concurrent ? new LinkedBlockingQueue<>() : null;
+    }
+
+    // 本轮搜索开始时读取参数
+    void prepare() {
+        this.ngRouteMode = bidLabeling.getNgRouteMode();
+        this.dualsOfRLMP = bidLabeling.getDualsOfRLMP();
+        this.midpointMode = Objects.equals(bidLabeling.getBidirectionalSplit(), "MIDPOINT");
+        this.midpoint = bidLabeling.getMidpoint();
+    }
+
+    // 标签到达截断节点：同步模式立即拼接，并发模式放入到达队列
+    void offer(JoinLabel label) {
+        if (this.arrivals != null) {
+            this.arrivals.add(Optional.of(label));
+        } else {
+            this.arrive(label);
+        }
+    }
+
+    // 并发模式的拼接线程：按到达顺序拼接，直到收到结束标记；达到结束条件后只清空队列不再拼接
+    void consume() throws InterruptedException {
+        while (true) {
+            Optional<JoinLabel> label = this.arrivals.take();
+            if (label.isEmpty()) {
+                return;
+            }
+            if (!bidLabeling.isStopConditionMet()) {
+                this.arrive(label.get());
+            }
+        }
+    }
+
+    // 并发模式：所有扩展线程结束后发送结束标记
+    void finish() {
+        this.arrivals.add(Optional.empty());
+    }
+
+    private void arrive(JoinLabel label) {
+        Fence endFence = fences.getFence(label.getNode());
+        if (label.isForward()) {
+            // 前向终点→后向起点：遍历前向终点的后继围栏（先取桶，999虚拟节点等越界索引得到空桶，不再读取距离）
+            for (Integer nextIndex : endFence.getVaildArcFence()) {
+                List<JoinLabel> bucket = this.backwardLabelPool.get(label.getDepot(), nextIndex);
+                if (bucket.isEmpty()) {
+                    continue;
+                }
+                double connectDist = endFence.getDistance(nextIndex);
+                for (JoinLabel labelI : bucket) {
+                    if (label.getDistance() + connectDist + labelI.getDistance() > Constants.MAX_DISTANCE) {
+                        break;
+                    }
+                    if (this.isSplitPoint(label, labelI, connectDist)) {
+                        this.labelConnect(label, labelI, connectDist);
+                    }
+                }
+            }
+            this.forwardLabelPool.add(label);
+        } else {
+            // 前向终点→后向起点：遍历后向起点的前驱围栏
+            for (Integer prevIndex : this.predecessors.get(label.getNode())) {
+                List<JoinLabel> bucket = this.forwardLabelPool.get(label.getDepot(), prevIndex);
+                if (bucket.isEmpty()) {
+                    continue;
+                }
+                double connectDist = fences.getFence(prevIndex).getDistance(label.getNode());
+                for (JoinLabel labelI : bucket) {
+                    if (labelI.getDistance() + connectDist + label.getDistance() > Constants.MAX_DISTANCE) {
+                        break;
+                    }
+                    if (this.isSplitPoint(labelI, label, connectDist)) {
+                        this.labelConnect(labelI, label, connectDist);
+                    }
+                }
+            }
+            this.backwardLabelPool.add(label);
+        }
+    }
+
+    // 拼接位置是否为该路径的唯一划分点（FIXED模式不限制）
+    private boolean isSplitPoint(JoinLabel forwardLabel, JoinLabel backwardLabel, double connectDist) {
+        if (!this.midpointMode) {
+            return true;
+        }
+        if (forwardLabel.getDistance() > this.midpoint) {
+            // 首个围栏已越过中点：c = 0，截断为前向只含一个围栏
+            return forwardLabel.getVisitNum() == 1;
+        }
+        // 连接弧跨越中点（c = 前向围栏数），或后向只含一个围栏（c截断为k-1）
+        return forwardLabel.getDistance() + connectDist > this.midpoint || backwardLabel.getVisitNum() == 1;
+    }
+
+    // 清空待拼接池
+    void clear() {
+        this.forwardLabelPool.clear();
+        this.backwardLabelPool.clear();
+    }
+
+    // 取出本轮统计并清零：过滤原因计数累加到target，返回装卸求解耗时
+    double drainStatistics(Map<String, Integer> target) {
+        for (Map.Entry<String, Integer> entry : this.recordDict.entrySet()) {
+            target.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
+        this.recordDict.clear();
+        double time = this.timeRecord;
+        this.timeRecord = 0.0;
+        return time;
+    }
+
+    // 标签连接（调用方已保证同属一个起点仓库、前向终点→后向起点的弧存在，connectDist为该弧长度）
+    private void labelConnect(JoinLabel forwardLabel, JoinLabel backwardLabel, double connectDist) {
+        int forwardBelongDepot = forwardLabel.getDepot();
+
+        // 3. 距离检查
+        double totalDist = forwardLabel.getDistance() + connectDist + backwardLabel.getDistance();
+        if (totalDist > Constants.MAX_DISTANCE) {
+            return;
+        }
+
+        // 4. 卸货量和访问次数校验
+        double totalLoaded = forwardLabel.getLoad() + backwardLabel.getLoad();
+        if (totalLoaded > Constants.MAX_CAPACITY) {
+            return;
+        }
+        if (this.midpointMode && totalLoaded < Constants.MIN_CARRIER_LOAD) {
+            return;
+        }
+
+        int totalVisitNum = forwardLabel.getVisitNum() + backwardLabel.getVisitNum();
+        if (totalVisitNum > Constants.MAX_VISIT_NUM) {
+            return;
+        }
+
+        // 5. 重复节点校验（仅允许归属仓库重复，卸货点禁止重复）
+        if (VisitedSet.intersects(forwardLabel.getVisited(), 0, backwardLabel.getVisited(), 0, this.wordNum)) {
+            return;
+        }
+        //TODO:利润剪枝
+
+        // 6. 构建闭环路径（起点仓库→卸货点→起点仓库）
+        List<Integer> backwardRoute = backwardLabel.getFenceIndexList();
+        ArrayList<Integer> fenceIndexList = new ArrayList<>(forwardLabel.getFenceIndexList().size() + backwardRoute.size());
+        fenceIndexList.addAll(forwardLabel.getFenceIndexList());
+        for (int i = backwardRoute.size() - 1; i >= 0; i--) {
+            fenceIndexList.add(backwardRoute.get(i));
+        }
+
+        // 删除第一个和最后一个元素
+        if (fenceIndexList.size() >= 2 && fenceIndexList.getFirst() == 0 && fenceIndexList.getLast() == 0) {// 避免空列表或只有一个元素时索引越界
+            fenceIndexList.removeFirst(); // 删除第一个元素
+            fenceIndexList.removeLast(); // 删除最后一个元素
+        } else if (!fenceIndexList.isEmpty()) { // 只有一个元素时清空列表
+            fenceIndexList.clear();
+        }
+
+        // ng-route模式下标签只记住邻域内的访问，需检查完整路径是否初等
+        if (this.ngRouteMode && !this.isElementary(fenceIndexList)) {
+            this.recordDict.put("ngNotElementary", this.recordDict.getOrDefault("ngNotElementary", 0) + 1);
+            return;
+        }
+
+        // 根据路径经过点集筛除（同一起点仓库下访问围栏相同，但是顺序不同，只保留短的），在构造Route之前完成
+        RouteKey routeKey = new RouteKey(forwardBelongDepot, fenceIndexList, this.wordNum);
+        if (!bidLabeling.isRouteCandidate(routeKey, totalDist)) {
+            return;
+        }
+
+        // 构造完整路径
+        Route route = Route.generate(
+                fences,
+                totalDist,
+                totalVisitNum,
+                fenceIndexList,
+                forwardBelongDepot,
+                totalLoaded);
+
+        // 求解装卸及车型方案
+        int startTime = CommonUtils.currentTimeInSecond();
+        Order order = bidLabeling.loading(route);
+        this.timeRecord += CommonUtils.currentTimeInSecond() - startTime;
+
+        if (order == null) {
+            return;
+        }
+
+        if (order.getOriginalPrice() < Constants.OBJ_LB) {
+            return;
+        }
+
+        order.setReducedCost(PriceCalculator.calculateRC(order, this.dualsOfRLMP));
+        // 连接成功
+        bidLabeling.addOrder(routeKey, order);
+    }
+
+    private boolean isElementary(List<Integer> fenceIndexList) {
+        Arrays.fill(this.elementaryCheck, 0L);
+        for (Integer fenceIndex : fenceIndexList) {
+            if (VisitedSet.contains(this.elementaryCheck, 0, this.elementaryCheck.length, fenceIndex)) {
+                return false;
+            }
+            VisitedSet.add(this.elementaryCheck, 0, fenceIndex);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,293 @@
+package algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 标签存储区（结构数组）：所有标签以并行的基本类型数组保存，外部只持有int句柄
+ * 句柄即数组下标，父标签句柄为-1表示初始标签；已访问节点集合按固定字长的long[]连续存放（见VisitedSet），
+ * 并随扩展增量维护集合的Zobrist哈希
+ */
+public class LabelArena {
+    public static final int NO_PARENT = -1;
+
+    private final int wordNum;     // 每个标签已访问集合占用的long个数
+    private final long[] zobristKeys; // 各节点的Zobrist键
+    private final int initialCapacity; // 初始容量（release后恢复到该容量）
+    private int size;
+    private int[] node;            // 当前节点（0表示仍在起点仓库）
+    private int[] depot;           // 起点仓库索引（负数）
+    private double[] load;         // 累计卸货量
+    private double[] distance;     // 累计距离
+    private double[] reducedCost;  // 累计检验数（已访问围栏价值 - 行驶成本，不含载具对偶值）
+    private double[] priority;     // 扩展优先级（检验数 + 乐观补全上界），入队时设置
+    private int[] visits;          // 访问卸货点数量
+    private int[] parent;          // 父标签句柄
+    private boolean[] forward;     // 是否前向标签
+    private boolean[] dominated;   // 是否已被其他标签支配（被支配后不再扩展）
+    private boolean[] queued;      // 是否曾通过支配检查进入队列
+    private boolean[] expanded;    // 是否已扩展过（子标签已生成）
+    private long[] visited;        // 已访问集合：第h个标签占用[h*wordNum, (h+1)*wordNum)
+    private long[] visitedHash;    // 已访问集合的Zobrist哈希
+
+    public LabelArena(int fenceNum, int initialCapacity) {
+        this.wordNum = VisitedSet.wordNum(fenceNum);
+        this.zobristKeys = VisitedSet.zobristKeys(fenceNum);
+        this.initialCapacity = Math.max(initialCapacity, 16);
+        this.allocateArrays(this.initialCapacity);
+    }
+
+    private void allocateArrays(int capacity) {
+        this.node = new int[capacity];
+        this.depot = new int[capacity];
+        this.load = new double[capacity];
+        this.distance = new double[capacity];
+        this.reducedCost = new double[capacity];
+        this.priority = new double[capacity];
+        this.visits = new int[capacity];
+        this.parent = new int[capacity];
+        this.forward = new boolean[capacity];
+        this.dominated = new boolean[capacity];
+        this.queued = new boolean[capacity];
+        this.expanded = new boolean[capacity];
+        this.visited = new long[capacity * wordNum];
+        this.visitedHash = new long[capacity];
+        this.size = 0;
+    }
+
+    /* 初始标签：位于起点仓库，未访问任何卸货点 */
+    public int addRoot(boolean isForward, int depotIdx) {
+        int handle = allocate();
+        node[handle] = 0;
+        depot[handle] = depotIdx;
+        load[handle] = 0.0;
+        distance[handle] = 0.0;
+        reducedCost[handle] = 0.0;
+        visits[handle] = 0;
+        parent[handle] = NO_PARENT;
+        forward[handle] = isForward;
+        dominated[handle] = false;
+        queued[handle] = false;
+        expanded[handle] = false;
+        Arrays.fill(visited, handle * wordNum, (handle + 1) * wordNum, 0L);
+        visitedHash[handle] = 0L;
+        return handle;
+    }
+
+    /* ng-route扩展标签：已访问集合只保留新节点ng邻域内的记忆，即(父集合 ∩ N(nextNode)) ∪ {nextNode}
+       memoryMasks按节点连续存放各节点的ng邻域集合（第i个节点占用[i*wordNum, (i+1)*wordNum)），为null时等同于初等扩展 */
+    public int addChild(int parentHandle, int nextNode, double newLoad, double newDistance, double newReducedCost,
+                        int newVisitNum, long[] memoryMasks) {
+        int handle = addChild(parentHandle, nextNode, newLoad, newDistance, newReducedCost, newVisitNum);
+        if (memoryMasks != null) {
+            int offset = handle * wordNum;
+            int maskOffset = nextNode * wordNum;
+            long hash = 0L;
+            for (int w = 0; w < wordNum; w++) {
+                long word = visited[offset + w] & memoryMasks[maskOffset + w];
+                visited[offset + w] = word;
+                while (word != 0) {
+                    hash ^= zobristKeys[(w << 6) + Long.numberOfTrailingZeros(word)];
+                    word &= word - 1;
+                }
+            }
+            visitedHash[handle] = hash;
+        }
+        return handle;
+    }
+
+    /* 扩展标签：继承父标签的方向、仓库与已访问集合，并将新节点加入已访问集合 */
+    public int addChild(int parentHandle, int nextNode, double newLoad, double newDistance, double newReducedCost, int newVisitNum) {
+        validateParams(newLoad, newDistance, newVisitNum);
+        int handle = allocate();
+        node[handle] = nextNode;
+        depot[handle] = depot[parentHandle];
+        load[handle] = newLoad;
+        distance[handle] = newDistance;
+        reducedCost[handle] = newReducedCost;
+        visits[handle] = newVisitNum;
+        parent[handle] = parentHandle;
+        forward[handle] = forward[parentHandle];
+        dominated[handle] = false;
+        queued[handle] = false;
+        expanded[handle] = false;
+        System.arraycopy(visited, parentHandle * wordNum, visited, handle * wordNum, wordNum);
+        VisitedSet.add(visited, handle * wordNum, nextNode);
+        visitedHash[handle] = visitedHash[parentHandle] ^ zobristKeys[nextNode];
+        return handle;
+    }
+
+    public int getNode(int handle) {
+        return node[handle];
+    }
+
+    public int getDepot(int handle) {
+        return depot[handle];
+    }
+
+    public double getLoad(int handle) {
+        return load[handle];
+    }
+
+    public double getDistance(int handle) {
+        return distance[handle];
+    }
+
+    public double getReducedCost(int handle) {
+        return reducedCost[handle];
+    }
+
+    // 对偶变化后重新设置累计检验数（其余资源与对偶无关，保持不变）
+    public void setReducedCost(int handle, double value) {
+        reducedCost[handle] = value;
+    }
+
+    public double getPriority(int handle) {
+        return priority[handle];
+    }
+
+    public void setPriority(int handle, double value) {
+        priority[handle] = value;
+    }
+
+    public int getVisitNum(int handle) {
+        return visits[handle];
+    }
+
+    public int getParent(int handle) {
+        return parent[handle];
+    }
+
+    public boolean isForward(int handle) {
+        return forward[handle];
+    }
+
+    public boolean isDominated(int handle) {
+        return dominated[handle];
+    }
+
+    public void markDominated(int handle) {
+        dominated[handle] = true;
+    }
+
+    public boolean isQueued(int handle) {
+        return queued[handle];
+    }
+
+    public void markQueued(int handle) {
+        queued[handle] = true;
+    }
+
+    public boolean isExpanded(int handle) {
+        return expanded[handle];
+    }
+
+    public void markExpanded(int handle) {
+        expanded[handle] = true;
+    }
+
+    public long getVisitedHash(int handle) {
+        return visitedHash[handle];
+    }
+
+    public boolean isVisited(int handle, int fenceIdx) {
+        return VisitedSet.contains(visited, handle * wordNum, wordNum, fenceIdx);
+    }
+
+    // 两个标签的已访问集合是否完全相同（哈希不同时直接返回）
+    public boolean sameVisited(int handle1, int handle2) {
+        return visitedHash[handle1] == visitedHash[handle2]
+                && VisitedSet.equals(visited, handle1 * wordNum, visited, handle2 * wordNum, wordNum);
+    }
+
+    // 标签1的已访问集合是否为标签2的子集
+    public boolean visitedSubset(int handle1, int handle2) {
+        return VisitedSet.isSubset(visited, handle1 * wordNum, visited, handle2 * wordNum, wordNum);
+    }
+
+    // 复制标签的已访问集合
+    public long[] copyVisited(int handle) {
+        return Arrays.copyOfRange(visited, handle * wordNum, (handle + 1) * wordNum);
+    }
+
+    // 两个标签的已访问集合是否有交集
+    public boolean visitedIntersects(int handle1, int handle2) {
+        return VisitedSet.intersects(visited, handle1 * wordNum, visited, handle2 * wordNum, wordNum);
+    }
+
+    // 沿父链重建路径（起点仓库0在前，当前节点在后），返回新列表
+    public List<Integer> getFenceIndexList(int handle) {
+        int depth = 0;
+        for (int h = handle; h != NO_PARENT; h = parent[h]) {
+            depth++;
+        }
+        Integer[] path = new Integer[depth];
+        for (int h = handle; h != NO_PARENT; h = parent[h]) {
+            path[--depth] = node[h];
+        }
+        return new ArrayList<>(Arrays.asList(path));
+    }
+
+    public int getWordNum() {
+        return wordNum;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // 清空标签，保留已分配的数组供下一轮复用
+    public void clear() {
+        size = 0;
+    }
+
+    // 清空标签并把数组缩回初始容量，释放峰值时占用的内存
+    public void release() {
+        this.allocateArrays(this.initialCapacity);
+    }
+
+    // 每个标签占用的字节数：4个int列、4个double列、4个boolean列、哈希列及wordNum个long的已访问集合
+    public long bytesPerLabel() {
+        return 4L * Integer.BYTES + 4L * Double.BYTES + 4L + (wordNum + 1L) * Long.BYTES;
+    }
+
+    // 已分配数组占用的字节数（按容量而非标签数计）
+    public long allocatedBytes() {
+        return (long) node.length * this.bytesPerLabel();
+    }
+
+    private int allocate() {
+        if (size == node.length) {
+            int capacity = node.length * 2;
+            node = Arrays.copyOf(node, capacity);
+            depot = Arrays.copyOf(depot, capacity);
+            load = Arrays.copyOf(load, capacity);
+            distance = Arrays.copyOf(distance, capacity);
+            reducedCost = Arrays.copyOf(reducedCost, capacity);
+            priority = Arrays.copyOf(priority, capacity);
+            visits = Arrays.copyOf(visits, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+            forward = Arrays.copyOf(forward, capacity);
+            dominated = Arrays.copyOf(dominated, capacity);
+            queued = Arrays.copyOf(queued, capacity);
+            expanded = Arrays.copyOf(expanded, capacity);
+            visited = Arrays.copyOf(visited, capacity * wordNum);
+            visitedHash = Arrays.copyOf(visitedHash, capacity);
+        }
+        return size++;
+    }
+
+    // 参数校验：确保核心字段合法
+    private static void validateParams(double loadedQuantity, double travelDistance, int visitNum) {
+        if (loadedQuantity < 0) {
+            throw new IllegalArgumentException("卸货量不能为负：" + loadedQuantity);
+        }
+        if (travelDistance < 0) {
+            throw new IllegalArgumentException("行驶距离不能为负：" + travelDistance);
+        }
+        if (visitNum < 0) {
+            throw new IllegalArgumentException("访问次数不能为负：" + visitNum);
+        }
+    }
+}
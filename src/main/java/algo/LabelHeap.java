@@ -0,0 +1,77 @@
+package algo;
+
+import java.util.Arrays;
+
+/**
+ * 标签句柄优先级队列：int数组实现的二叉小顶堆，按LabelComparator比较句柄
+ */
+public class LabelHeap {
+    private final LabelComparator comparator;
+    private int[] heap;
+    private int size;
+
+    public LabelHeap(LabelComparator comparator) {
+        this.comparator = comparator;
+        this.heap = new int[64];
+        this.size = 0;
+    }
+
+    public void add(int handle) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        heap[size] = handle;
+        siftUp(size++);
+    }
+
+    public int poll() {
+        int top = heap[0];
+        heap[0] = heap[--size];
+        if (size > 0) {
+            siftDown(0);
+        }
+        return top;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int handle = heap[position];
+        while (position > 0) {
+            int parentPosition = (position - 1) >>> 1;
+            if (comparator.compare(handle, heap[parentPosition]) >= 0) {
+                break;
+            }
+            heap[position] = heap[parentPosition];
+            position = parentPosition;
+        }
+        heap[position] = handle;
+    }
+
+    private void siftDown(int position) {
+        int handle = heap[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && comparator.compare(heap[child + 1], heap[child]) < 0) {
+                child++;
+            }
+            if (comparator.compare(handle, heap[child]) <= 0) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = handle;
+    }
+}
@@ -0,0 +1,98 @@
+package algo;
+
+import java.util.Arrays;
+
+/**
+ * 标签支配索引：以（当前节点，起点仓库，已访问集合）为键的开放寻址哈希表，值为LabelArena中的标签句柄
+ * 现行支配规则只在上述三者完全一致时生效，因此每个键至多保留一个标签，支配检查退化为一次精确查找
+ */
+public class LabelIndex {
+    private static final int EMPTY = -1;
+
+    private final LabelArena labelArena;
+    private final int initialCapacity;
+    private int[] slots;   // 标签句柄，EMPTY表示空槽
+    private int mask;
+    private int size;
+
+    public LabelIndex(LabelArena labelArena, int initialCapacity) {
+        this.labelArena = labelArena;
+        this.initialCapacity = Integer.highestOneBit(Math.max(initialCapacity, 16) - 1) << 1;
+        this.release();
+    }
+
+    /* 查找与label键相同的已存标签，不存在时返回LabelArena.NO_PARENT */
+    public int find(int label) {
+        for (int i = slotIndex(label); slots[i] != EMPTY; i = (i + 1) & mask) {
+            if (sameKey(slots[i], label)) {
+                return slots[i];
+            }
+        }
+        return LabelArena.NO_PARENT;
+    }
+
+    /* 存入label：键已存在时替换原标签，否则新增 */
+    public void put(int label) {
+        int i = slotIndex(label);
+        while (slots[i] != EMPTY) {
+            if (sameKey(slots[i], label)) {
+                slots[i] = label;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        slots[i] = label;
+        if (++size * 2 > slots.length) {
+            resize();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, EMPTY);
+        size = 0;
+    }
+
+    // 清空并把哈希表缩回初始容量
+    public void release() {
+        slots = new int[initialCapacity];
+        Arrays.fill(slots, EMPTY);
+        mask = initialCapacity - 1;
+        size = 0;
+    }
+
+    private boolean sameKey(int label1, int label2) {
+        return labelArena.getNode(label1) == labelArena.getNode(label2)
+                && labelArena.getDepot(label1) == labelArena.getDepot(label2)
+                && labelArena.sameVisited(label1, label2);
+    }
+
+    private int slotIndex(int label) {
+        long h = labelArena.getVisitedHash(label)
+                ^ (labelArena.getNode(label) * 0x9E3779B97F4A7C15L)
+                ^ (labelArena.getDepot(label) * 0xC2B2AE3D27D4EB4FL);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private void resize() {
+        int[] oldSlots = slots;
+        slots = new int[oldSlots.length * 2];
+        Arrays.fill(slots, EMPTY);
+        mask = slots.length - 1;
+        for (int label : oldSlots) {
+            if (label != EMPTY) {
+                int i = slotIndex(label);
+                while (slots[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = label;
+            }
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package algo;
+
+import Utils.CommonUtils;
+import Utils.PriceCalculator;
+import baseinfo.Constants;
+import impl.*;
+
+import java.util.*;
+
+
+/**
+ * 标号搜索工作单元：负责一组起点仓库的双向（或单一方向）标号搜索，持有这些仓库的标签状态（存储区、支配池、队列），
+ * 到达截断节点的标签交给拼接阶段（JoinStage）与对向标签拼接
+ * 不同起点仓库的标签之间既不支配也不拼接，因此各工作单元可以相互独立地运行；
+ * 同一组仓库的前后向也可以拆成两个工作单元并发扩展，共享一个并发拼接阶段
+ * 拼接得到的订单通过BidLabeling的同步方法去重并写入共享订单池
+ */
+class LabelingWorker {
+    private final BidLabeling bidLabeling;
+    private final Fences fences;
+    private final Depots depots;
+    private final List<Integer> depotIndexes; // 本工作单元负责的起点仓库
+
+    // 标签容器（标签统一存放在labelArena中，其余容器只保存int句柄）
+    final LabelArena labelArena;       // 标签存储区（结构数组）
+    final LabelIndex labelPool;        // 按（节点，起点仓库，已访问集合）索引的标签池，用于EXACT支配检查
+    final List<HandleList> nodeLabelPool; // 按【节点索引】存储标签，用于PARETO支配检查
+    final DepotLabelScheduler forwardLabelQueue;  // 前向标签队列（每个起点仓库一个优先级队列，仓库间轮转调度）
+    final DepotLabelScheduler backwardLabelQueue; // 后向标签队列（每个起点仓库一个优先级队列，仓库间轮转调度）
+    final JoinStage joinStage;          // 拼接阶段（前后向待拼接池，虚拟节点触发后存入）
+    private final boolean ownsJoinStage; // 拼接阶段是否由本工作单元独占（共享时由BidLabeling汇总统计）
+    private final boolean searchForward;  // 是否扩展前向标签
+    private final boolean searchBackward; // 是否扩展后向标签
+    private final boolean heuristic;      // 启发式定价：每个围栏只扩展启发式邻居，每轮搜索前清空全部标签
+
+    // 本工作单元的统计（每轮搜索结束后汇总到BidLabeling）
+    private final HashMap<String, Integer> recordDict = new HashMap<>();
+
+    // 本轮搜索参数（搜索开始时从BidLabeling读取）
+    private boolean paretoMode;
+    private long[] ngMemoryMasks;  // ng-route模式下的邻域位集，非ng模式为null
+    private double maxFenceValue;
+    private boolean midpointMode;          // 是否按动态距离中点划分前后向
+    private double forwardDistanceLimit;   // 前向标签距离上限（FIXED为一半，MIDPOINT为中点）
+    private double backwardDistanceLimit;  // 后向标签距离上限（FIXED为一半，MIDPOINT为MAX_DISTANCE - 中点）
+    private double loadLimit;              // 单向卸货量上限（FIXED为一半，MIDPOINT不再划分）
+    private int visitLimit;                // 单向访问数上限（FIXED为一半，MIDPOINT不再划分）
+
+    // 同时扩展前后向标签，独占同步拼接阶段
+    LabelingWorker(BidLabeling bidLabeling, List<Integer> depotIndexes, int[] depotWeights) {
+        this(bidLabeling, depotIndexes, depotWeights, false);
+    }
+
+    // 同时扩展前后向标签，独占同步拼接阶段；heuristic为true时作为启发式定价工作单元
+    LabelingWorker(BidLabeling bidLabeling, List<Integer> depotIndexes, int[] depotWeights, boolean heuristic) {
+        this(bidLabeling, depotIndexes, depotWeights, true, true, new JoinStage(bidLabeling, false), true, heuristic);
+    }
+
+    // 只扩展一个方向的标签，拼接阶段与另一方向的工作单元共享
+    LabelingWorker(BidLabeling bidLabeling, List<Integer> depotIndexes, int[] depotWeights, boolean isForward, JoinStage joinStage) {
+        this(bidLabeling, depotIndexes, depotWeights, isForward, !isForward, joinStage, false, false);
+    }
+
+    private LabelingWorker(BidLabeling bidLabeling, List<Integer> depotIndexes, int[] depotWeights,
+                           boolean searchForward, boolean searchBackward, JoinStage joinStage, boolean ownsJoinStage,
+                           boolean heuristic) {
+        this.bidLabeling = bidLabeling;
+        this.fences = bidLabeling.getFences();
+        this.depots = bidLabeling.getDepots();
+        this.depotIndexes = depotIndexes;
+
+        int maxFenceIndex = bidLabeling.getMaxFenceIndex();
+        this.labelArena = new LabelArena(maxFenceIndex, 1 << 12);
+        this.labelPool = new LabelIndex(labelArena, 1 << 12);
+        this.nodeLabelPool = new ArrayList<>();
+        for (int i = 0; i < maxFenceIndex; i++) {
+            this.nodeLabelPool.add(new HandleList()); // 每个节点对应一个标签列表
+        }
+        LabelComparator labelComparator = new LabelComparator(labelArena);
+        this.forwardLabelQueue = new DepotLabelScheduler(labelArena, labelComparator, depotIndexes,
+                depotWeights, Constants.MAX_DEPOT_EXPANSIONS);
+        this.backwardLabelQueue = new DepotLabelScheduler(labelArena, labelComparator, depotIndexes,
+                depotWeights, Constants.MAX_DEPOT_EXPANSIONS);
+        this.joinStage = joinStage;
+        this.ownsJoinStage = ownsJoinStage;
+        this.searchForward = searchForward;
+        this.searchBackward = searchBackward;
+        this.heuristic = heuristic;
+    }
+
+    /* 双向标号搜索 - 适配多真实起点仓库+全卸点（强制返回起点仓库） */
+    void search() {
+        int iterationCnt = 0;
+        this.ngMemoryMasks = bidLabeling.getNgRouteMode() ? bidLabeling.getNgMemoryMasks() : null;
+        // ng-route模式下标签按ng记忆而非完整访问集合索引，EXACT只比较距离会合并卸货量/访问数/检验数不同的标签，因此统一走PARETO
+        this.paretoMode = Objects.equals(bidLabeling.getDominanceRule(), "PARETO") || this.ngMemoryMasks != null;
+        this.maxFenceValue = bidLabeling.getMaxFenceValue();
+        this.midpointMode = Objects.equals(bidLabeling.getBidirectionalSplit(), "MIDPOINT");
+        if (this.midpointMode) {
+            this.forwardDistanceLimit = bidLabeling.getMidpoint();
+            this.backwardDistanceLimit = Constants.MAX_DISTANCE - bidLabeling.getMidpoint();
+            this.loadLimit = Constants.MAX_CAPACITY;
+            this.visitLimit = Constants.MAX_VISIT_NUM;
+        } else {
+            this.forwardDistanceLimit = Constants.MAX_DISTANCE / 2.0;
+            this.backwardDistanceLimit = Constants.MAX_DISTANCE / 2.0;
+            this.loadLimit = Constants.MAX_CAPACITY / 2.0;
+            this.visitLimit = Constants.MAX_VISIT_NUM / 2;
+        }
+        if (this.ownsJoinStage) {
+            this.joinStage.prepare();
+        }
+        // 初始化：热启动时按新对偶恢复上一轮的标签，否则清空后为负责的每个仓库创建前向/后向标签
+        // 保留的标签存储超过WARM_START_MAX_BYTES时改为冷启动，并释放存储区与支配索引的峰值内存
+        boolean warmStart = this.isWarmStartApplicable() && labelArena.size() > 0;
+        if (warmStart && labelArena.allocatedBytes() <= Constants.WARM_START_MAX_BYTES) {
+            this.restoreStoredLabels();
+        } else {
+            this.clear();
+            if (warmStart) {
+                labelArena.release();
+                labelPool.release();
+            }
+            initializeMultiDepotUnloadingLabels();
+        }
+
+        while (true) {
+            // 前向标号搜索（仓库间轮转，仓库内按潜力调度）
+            if (forwardLabelQueue.hasNext()) {
+                int label = forwardLabelQueue.poll();
+                if (!labelArena.isDominated(label)) {
+                    this.labelExpand(label);
+                }
+            }
+            // 后向标号搜索（仓库间轮转）
+            if (backwardLabelQueue.hasNext()) {
+                int label = backwardLabelQueue.poll();
+                if (!labelArena.isDominated(label)) {
+                    this.labelExpand(label);
+                }
+            }
+
+            // 完整结束条件: 前后向队列均无可扩展标签（为空或所属仓库均已达扩展上限）
+            if (!forwardLabelQueue.hasNext() && !backwardLabelQueue.hasNext()) {
+                displayIterationInformationIfNecessary(iterationCnt);
+                break;
+            }
+            // 提前结束条件：超时或达到订单数量上限
+            if (bidLabeling.isStopConditionMet()) {
+                displayIterationInformationIfNecessary(iterationCnt);
+                break;
+            }
+            // 定期输出迭代信息
+            iterationCnt += 1;
+            if (iterationCnt % Constants.OUTPUT_INTERVAL == 0) {
+                displayIterationInformationIfNecessary(iterationCnt);
+            }
+        }
+    }
+
+    // 取出本轮统计并清零：过滤原因计数累加到target，返回装卸求解耗时（独占的拼接阶段一并汇总）
+    double drainStatistics(Map<String, Integer> target) {
+        for (Map.Entry<String, Integer> entry : this.recordDict.entrySet()) {
+            target.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
+        this.recordDict.clear();
+        return this.ownsJoinStage ? this.joinStage.drainStatistics(target) : 0.0;
+    }
+
+    // 清空全部标签状态（存储区、支配池、队列；独占的待拼接池一并清空）
+    void clear() {
+        labelArena.clear();
+        labelPool.clear();
+        for (HandleList nodeLabels : nodeLabelPool) {
+            nodeLabels.clear();
+        }
+        forwardLabelQueue.clear();
+        backwardLabelQueue.clear();
+        if (this.ownsJoinStage) {
+            this.joinStage.clear();
+        }
+    }
+
+    // 热启动条件：标签集合与对偶无关时才能跨轮保留（EXACT支配只比较距离；PARETO比较检验数、MIDPOINT中点逐轮变化、启发式邻居逐轮变化）
+    private boolean isWarmStartApplicable() {
+        return bidLabeling.getWarmStartMode() && !this.heuristic && !this.paretoMode && !this.midpointMode;
+    }
+
+    /* 热启动：标签骨架（节点、仓库、资源、已访问集合、父链）与对偶无关，只按新的围栏价值重算检验数
+       句柄按生成顺序分配（父标签总在子标签之前），一遍扫描即可沿父链更新；弧长即与父标签的距离差
+       之后恢复调度：未扩展的标签照常扩展，已扩展的标签只在可拼接时重新进入队列以按新对偶参与拼接；待拼接池与队列清空重建 */
+    private void restoreStoredLabels() {
+        forwardLabelQueue.clear();
+        backwardLabelQueue.clear();
+        forwardLabelQueue.resetExpandCount();
+        backwardLabelQueue.resetExpandCount();
+        if (this.ownsJoinStage) {
+            this.joinStage.clear();
+        }
+        double[] gains = new double[bidLabeling.getMaxFenceIndex() + 1];
+        for (Integer fenceIndex : fences.getFenceIndexList()) {
+            Fence fence = fences.getFence(fenceIndex);
+            gains[fenceIndex] = fence.getDeliverDemand() * fence.getFenceValue();
+        }
+        for (int label = 0; label < labelArena.size(); label++) {
+            int parent = labelArena.getParent(label);
+            if (parent != LabelArena.NO_PARENT) {
+                double arcDist = labelArena.getDistance(label) - labelArena.getDistance(parent);
+                labelArena.setReducedCost(label, labelArena.getReducedCost(parent) + gains[labelArena.getNode(label)]
+                        - arcDist * Constants.DELIVER_COST_PER_METER);
+            }
+            if (labelArena.isQueued(label) && (!labelArena.isExpanded(label) || this.isJoinable(label))) {
+                this.schedule(label);
+            }
+        }
+    }
+
+    // 为负责的仓库初始化标签（强制起点=终点）
+    private void initializeMultiDepotUnloadingLabels() {
+        forwardLabelQueue.resetExpandCount();
+        backwardLabelQueue.resetExpandCount();
+        for (Integer depotIdx : this.depotIndexes) {
+            // 前向初始标签
+            if (this.searchForward) {
+                this.enqueue(labelArena.addRoot(true, depotIdx));
+            }
+            // 后向初始标签
+            if (this.searchBackward) {
+                this.enqueue(labelArena.addRoot(false, depotIdx));
+            }
+        }
+    }
+
+    // 标签扩展
+    private void labelExpand(int label) {
+        // 热启动恢复的已扩展标签：子标签已在存储区中，只需按新对偶重新参与拼接
+        if (labelArena.isExpanded(label)) {
+            if (this.isJoinable(label)) {
+                this.joinStage.offer(JoinLabel.of(labelArena, label));
+            }
+            return;
+        }
+        labelArena.markExpanded(label);
+        Fence currentFence;
+        if (labelArena.getParent(label) == LabelArena.NO_PARENT || labelArena.getNode(label) == 0) {
+            Depot depot = depots.getDepot(labelArena.getDepot(label));
+            currentFence = depot.depot2Fence(999);//创建一个999节点用于截断搜索
+        } else {
+            currentFence = fences.getFence(labelArena.getNode(label));
+        }
+        boolean isForward = labelArena.isForward(label);
+        double distanceLimit = isForward ? this.forwardDistanceLimit : this.backwardDistanceLimit;
+        // 启发式定价下围栏只扩展启发式邻居（起点仓库仍扩展全部可达围栏）
+        List<Integer> nextNodes = this.heuristic && labelArena.getNode(label) != 0
+                ? bidLabeling.getHeuristicArcs().get(labelArena.getNode(label))
+                : currentFence.getVaildArcFence();
+        for (Integer nextNode : nextNodes) {
+            // 如果是自己或者是禁止搜索的则跳过
+            if (labelArena.isVisited(label, nextNode)) {
+                continue;
+            }
+            // 如果是999节点（目的是截断搜索），则判断是否能成单，并压入待匹配池
+            if (nextNode == 999 && this.isJoinable(label)) {
+                this.joinStage.offer(JoinLabel.of(labelArena, label));
+            } else if (nextNode != 999) {
+                Fence nextFence = fences.getFence(nextNode);
+
+                // 访问次数约束（仅卸货点计数，归属仓库不计入）
+                int newVisitNum = labelArena.getVisitNum(label) + 1;
+                if (newVisitNum > this.visitLimit) {
+                    continue;
+                }
+
+                // 卸货量约束（仅卸货点累加，归属仓库不计入）
+                double newLoad = labelArena.getLoad(label) + nextFence.getDeliverDemand();
+                if (newLoad > this.loadLimit) {
+                    continue;
+                }
+
+                // 距离约束（含归属仓库的距离计算）；MIDPOINT模式下首个围栏不受中点限制（该标签只用于拼接，不再继续扩展）
+                double distance_ = currentFence.getDistance(nextNode) + labelArena.getDistance(label);
+                if (distance_ > distanceLimit && !(this.midpointMode && newVisitNum == 1)) {
+                    continue;
+                }
+
+                // 检验数：累加新围栏价值（对偶值已计入fenceValue）并扣除该段行驶成本
+                double reducedCost_ = labelArena.getReducedCost(label) + nextFence.getDeliverDemand() * nextFence.getFenceValue()
+                        - currentFence.getDistance(nextNode) * Constants.DELIVER_COST_PER_METER;
+
+                // 创建新标签（继承父标签的已访问集合并加入新节点）
+                int newLabel = labelArena.addChild(label, nextFence.getIndex(), newLoad, distance_, reducedCost_, newVisitNum,
+                        this.ngMemoryMasks);
+                this.dominantAdd(newLabel);
+            }
+        }
+    }
+
+
+    // 能否进入待拼接池：FIXED下每一半的卸货量都需达到最小载重；MIDPOINT下拼接位置唯一，改为在拼接时检查总卸货量
+    private boolean isJoinable(int label) {
+        if (this.midpointMode) {
+            return labelArena.getNode(label) != 0;
+        }
+        return labelArena.getLoad(label) >= Constants.MIN_CARRIER_LOAD;
+    }
+
+    private void dominantAdd(int label) {
+        boolean added = this.paretoMode ? this.paretoDominantAdd(label) : this.exactDominantAdd(label);
+        if (added) {
+            this.enqueue(label);
+        }
+    }
+
+    private void enqueue(int label) {
+        String key = labelArena.isForward(label) ? "labels_F" : "labels_B";
+        this.recordDict.put(key, this.recordDict.getOrDefault(key, 0) + 1);
+        labelArena.markQueued(label);
+        this.schedule(label);
+    }
+
+    // 入队前计算排序键（入队后不再变化）：累计检验数 + 剩余单向容量全部以最高单位价值补满的乐观上界
+    private void schedule(int label) {
+        double remainingLoad = Math.max(0.0, this.loadLimit - labelArena.getLoad(label));
+        labelArena.setPriority(label, labelArena.getReducedCost(label) + remainingLoad * this.maxFenceValue);
+        if (labelArena.isForward(label)) {
+            forwardLabelQueue.add(label);
+        } else {
+            backwardLabelQueue.add(label);
+        }
+    }
+
+    // EXACT：同一节点上只有键（起点仓库+已访问集合）相同的标签可能互相支配，按键查找即可
+    // 该规则不区分前后向，被替换的已存标签仍留在队列中照常扩展（与原有行为一致）
+    private boolean exactDominantAdd(int label) {
+        int existing = this.labelPool.find(label);
+        if (existing != LabelArena.NO_PARENT) {
+            if (this.exactDominantRule(label, existing) == -1) {
+                this.recordDominated(label);
+                return false;
+            }
+            this.recordDominated(existing);
+        }
+        this.labelPool.put(label);
+        return true;
+    }
+
+    // PARETO：逐一比较同一节点上的标签，被支配的已存标签移出标签池并标记为不再扩展
+    private boolean paretoDominantAdd(int label) {
+        HandleList nodeLabels = this.nodeLabelPool.get(labelArena.getNode(label) - 1);
+        int li = 0;
+        while (li < nodeLabels.size()) {
+            int labelI = nodeLabels.get(li);
+            int dominance = this.paretoDominantRule(label, labelI);
+            if (dominance == 1) {
+                nodeLabels.removeAt(li);
+                labelArena.markDominated(labelI);
+                this.recordDominated(labelI);
+            } else if (dominance == -1) {
+                this.recordDominated(label);
+                return false;
+            } else {
+                li++;
+            }
+        }
+        nodeLabels.add(label);
+        return true;
+    }
+
+    // 支配规则：较强的禁忌表完全一致才支配
+    private int exactDominantRule(int label1, int label2) {
+        if (labelArena.getDepot(label1) != labelArena.getDepot(label2)) {
+            return 0;
+        }
+        if (labelArena.sameVisited(label1, label2)) {
+            if (labelArena.getDistance(label1) <= labelArena.getDistance(label2)) {
+                return 1;
+            } else {
+                return -1;
+            }
+        } else {
+            return 0;
+        }
+    }
+
+    // Pareto支配规则：同节点、同仓库、同方向，距离不大于、卸货量兼容、访问数不大于、已访问集合为子集且检验数不小于
+    private int paretoDominantRule(int label1, int label2) {
+        if (labelArena.getDepot(label1) != labelArena.getDepot(label2)
+                || labelArena.isForward(label1) != labelArena.isForward(label2)) {
+            return 0;
+        }
+        if (this.paretoDominates(label1, label2)) {
+            return 1;
+        } else if (this.paretoDominates(label2, label1)) {
+            return -1;
+        } else {
+            return 0;
+        }
+    }
+
+    private boolean paretoDominates(int label1, int label2) {
+        // 卸货量兼容：卸货量不大于对方，且在拼接所需的最小载货量上不弱于对方
+        double load1 = labelArena.getLoad(label1);
+        double load2 = labelArena.getLoad(label2);
+        boolean loadCompatible = load1 <= load2 && (load1 >= Constants.MIN_CARRIER_LOAD || load1 == load2);
+        return loadCompatible
+                && labelArena.getDistance(label1) <= labelArena.getDistance(label2)
+                && labelArena.getVisitNum(label1) <= labelArena.getVisitNum(label2)
+                && labelArena.getReducedCost(label1) >= labelArena.getReducedCost(label2)
+                && labelArena.visitedSubset(label1, label2);
+    }
+
+    // 按节点统计被支配的标签数量
+    private void recordDominated(int label) {
+        String key = "dominated_F" + labelArena.getNode(label);
+        this.recordDict.put(key, this.recordDict.getOrDefault(key, 0) + 1);
+    }
+
+    private void displayIterationInformationIfNecessary(int iterationCnt) {
+        if (!bidLabeling.getOutputFlag()) {
+            return;
+        }
+        double obj = (double) Math.round(bidLabeling.getBestObj() * 10) / 10;
+        double timeRecord = (double) Math.round(bidLabeling.getTimeRecord() * 10) / 10;
+        double timeCost = (double) Math.round((double) (CommonUtils.currentTimeInSecond() - bidLabeling.getStartTime()) * 10) / 10;
+        System.out.println("iterationCnt: " + iterationCnt + ", depots: " + this.depotIndexes.size()
+                + ", forwardPoolSize: " + this.joinStage.forwardLabelPool.size()
+                + ", backwardPoolSize: " + this.joinStage.backwardLabelPool.size()
+                + ", forwardQueueSize: " + this.forwardLabelQueue.size()
+                + ", backwardQueueSize: " + this.backwardLabelQueue.size()
+                + ", labelPoolSize: " + this.labelPool.size()
+                + ", orderPoolSize: " + bidLabeling.getOrderPoolSize()
+                + ", obj: " + obj + ", timeRecord: " + timeRecord + "(" + timeCost + ")");
+    }
+}
@@ -25,7 +25,8 @@ public class LoadingAlgorithm {
         this.orderCnt = 0;
     }
 
-    public Order solve(Route route) {
+    // 并行定价时多个工作单元共用同一求解器（订单编号需全局唯一），因此同步
+    public synchronized Order solve(Route route) {
         // 计算最优调度量
         bestDispatchNum = route.getMaxDispatchNum();
         HashMap<Integer, Double> loads = new HashMap<>();
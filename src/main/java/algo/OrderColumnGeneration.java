@@ -152,7 +152,14 @@ public class OrderColumnGeneration {
             List<Order> newOrders;
             newOrders = generateOrders();
             if (newOrders.isEmpty()) {
-                System.out.println("迭代" + iterationCnt + "：无新路径生成，退出迭代");
+                System.out.println("迭代" + iterationCnt + "：无检验数为正的新路径生成，退出迭代");
+                break;
+            }
+
+            // 3. 收敛判断（最大化问题）：没有检验数为正的路径时，新列无法改进主问题
+            double maxReducedCost = newOrders.stream().mapToDouble(Order::getReducedCost).max().orElse(0.0);
+            if (maxReducedCost <= Constants.RC_THRESHOLD) {
+                System.out.println("迭代" + iterationCnt + "：无检验数为正的新路径（最大检验数=" + maxReducedCost + "），列生成收敛，退出迭代");
                 break;
             }
 
@@ -185,11 +192,24 @@ public class OrderColumnGeneration {
 
 
     /**
-     * 调用子问题（标签算法）生成新路径
+     * 调用子问题（标签算法）生成新路径：先进行启发式定价，找不到检验数为正的路径时再进行完整的双向标号搜索
      */
     private List<Order> generateOrders() {
+        // 对偶相关的状态（围栏价值、订单池检验数、启发式邻居）每轮只计算一次，两级定价共用
+        this.bidLabeling.updateDuals(dualsOfRLMP);
+        if (Constants.HEURISTIC_PRICING_MODE) {
+            this.bidLabeling.setTimeLimit(this.getIterationTimeLimitLeft());
+            List<Order> heuristicOrders = this.bidLabeling.price(true);
+            for (Order order : heuristicOrders) {
+                if (order.getReducedCost() > Constants.RC_THRESHOLD) {
+                    return heuristicOrders;
+                }
+            }
+            // 本批次不输出：已从订单池取出并记录在去重映射中，需放回订单池，否则完整搜索无法再生成这些订单
+            this.bidLabeling.returnOrders(heuristicOrders);
+        }
         this.bidLabeling.setTimeLimit(this.getIterationTimeLimitLeft());
-        return this.bidLabeling.solve(dualsOfRLMP); // 传入对偶值用于定价
+        return this.bidLabeling.price(false);
     }
 
 
@@ -0,0 +1,220 @@
+package algo;
+
+import Utils.PriceCalculator;
+import impl.Order;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * 有界订单池：按检验数保留最优的capacity个订单
+ * 以小顶堆保存（堆顶为检验数最小、其次订单编号最大的订单），插入与淘汰均为O(log K)；
+ * 去重键→堆位置的映射可直接定位同一键下的旧订单并原地替换
+ */
+public class OrderPool {
+    private RouteKey[] keys = new RouteKey[16];
+    private Order[] orders = new Order[16];
+    private final HashMap<RouteKey, Integer> key2slot = new HashMap<>();
+    private int size = 0;
+    private int capacity;
+
+    public OrderPool(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(RouteKey key) {
+        return key2slot.containsKey(key);
+    }
+
+    // 检验数最小（池满时下一个被淘汰）的订单的键，池为空时返回null
+    public RouteKey peekWorstKey() {
+        return size == 0 ? null : keys[0];
+    }
+
+    // 调整容量：容量缩小时淘汰检验数最小的订单
+    public void setCapacity(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        while (size > this.capacity) {
+            removeAt(0);
+        }
+    }
+
+    /**
+     * 加入订单：同一键已在池中时原地替换；池满且新订单不优于堆顶时拒绝并返回false，否则淘汰堆顶
+     */
+    public boolean add(RouteKey key, Order order) {
+        Integer slot = key2slot.get(key);
+        if (slot != null) {
+            orders[slot] = order;
+            siftDown(siftUp(slot));
+            return true;
+        }
+        if (size >= capacity) {
+            if (!isWorse(orders[0], order)) {
+                return false;
+            }
+            removeAt(0);
+        }
+        if (size == orders.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            orders = Arrays.copyOf(orders, size * 2);
+        }
+        keys[size] = key;
+        orders[size] = order;
+        key2slot.put(key, size);
+        siftUp(size++);
+        return true;
+    }
+
+    // 对偶变化后重新计算池中订单的检验数并重建堆
+    public void updateReducedCost(HashMap<String, Double> dualsOfRLMP) {
+        for (int i = 0; i < size; i++) {
+            orders[i].setReducedCost(PriceCalculator.calculateRC(orders[i], dualsOfRLMP));
+        }
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * 移除检验数不超过threshold的订单并重建堆，返回被移除订单的键
+     */
+    public List<RouteKey> removeNotAbove(double threshold) {
+        List<RouteKey> removed = new ArrayList<>();
+        int remainNum = 0;
+        for (int i = 0; i < size; i++) {
+            if (orders[i].getReducedCost() > threshold) {
+                keys[remainNum] = keys[i];
+                orders[remainNum] = orders[i];
+                key2slot.put(keys[remainNum], remainNum);
+                remainNum++;
+            } else {
+                removed.add(keys[i]);
+                key2slot.remove(keys[i]);
+            }
+        }
+        Arrays.fill(keys, remainNum, size, null);
+        Arrays.fill(orders, remainNum, size, null);
+        size = remainNum;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+        return removed;
+    }
+
+    /**
+     * 取出检验数最大的num个订单（按检验数降序），其余订单留在池中；返回新列表，不引用池的内部数组
+     */
+    public List<Order> pollBest(int num) {
+        Integer[] slots = sortedSlots();
+        int outputNum = Math.min(num, size);
+        List<Order> output = new ArrayList<>(outputNum);
+        for (int i = 0; i < outputNum; i++) {
+            output.add(orders[slots[i]]);
+        }
+        int remainNum = size - outputNum;
+        RouteKey[] remainKeys = new RouteKey[Math.max(16, remainNum)];
+        Order[] remainOrders = new Order[remainKeys.length];
+        key2slot.clear();
+        // 剩余订单按检验数升序存放，即为合法的小顶堆
+        for (int i = 0; i < remainNum; i++) {
+            int slot = slots[size - 1 - i];
+            remainKeys[i] = keys[slot];
+            remainOrders[i] = orders[slot];
+            key2slot.put(remainKeys[i], i);
+        }
+        keys = remainKeys;
+        orders = remainOrders;
+        size = remainNum;
+        return output;
+    }
+
+    // 池中订单按检验数降序（相同时按订单编号升序）排列的新列表
+    public List<Order> toSortedList() {
+        List<Order> sorted = new ArrayList<>(size);
+        for (Integer slot : sortedSlots()) {
+            sorted.add(orders[slot]);
+        }
+        return sorted;
+    }
+
+    private Integer[] sortedSlots() {
+        Integer[] slots = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = i;
+        }
+        Arrays.sort(slots, (slot1, slot2) -> isWorse(orders[slot1], orders[slot2]) ? 1
+                : (isWorse(orders[slot2], orders[slot1]) ? -1 : 0));
+        return slots;
+    }
+
+    // order1是否劣于order2：检验数更小，或检验数相同但编号更大（后生成）
+    private static boolean isWorse(Order order1, Order order2) {
+        int cmp = Double.compare(order1.getReducedCost(), order2.getReducedCost());
+        if (cmp != 0) {
+            return cmp < 0;
+        }
+        return order1.getOrderId() > order2.getOrderId();
+    }
+
+    private void removeAt(int slot) {
+        key2slot.remove(keys[slot]);
+        int last = --size;
+        if (slot != last) {
+            move(last, slot);
+            siftDown(siftUp(slot));
+        }
+        keys[last] = null;
+        orders[last] = null;
+    }
+
+    private int siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!isWorse(orders[slot], orders[parent])) {
+                break;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+        return slot;
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && isWorse(orders[child + 1], orders[child])) {
+                child++;
+            }
+            if (!isWorse(orders[child], orders[slot])) {
+                return;
+            }
+            swap(slot, child);
+            slot = child;
+        }
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        orders[to] = orders[from];
+        key2slot.put(keys[to], to);
+    }
+
+    private void swap(int i, int j) {
+        RouteKey key = keys[i];
+        Order order = orders[i];
+        move(j, i);
+        keys[j] = key;
+        orders[j] = order;
+        key2slot.put(key, j);
+    }
+}
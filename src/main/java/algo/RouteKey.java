@@ -0,0 +1,52 @@
+package algo;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 订单去重键：起点仓库 + 经过围栏集合（定长long字位集），构造时预先计算64位哈希
+ * 直接由拼接得到的围栏序列生成，无需构造Route或拼接字符串；访问顺序不同但围栏集合相同的路径键相同
+ */
+public final class RouteKey {
+    private final int depot;
+    private final long[] words;
+    private final long hash;
+
+    public RouteKey(int depot, List<Integer> fenceIndexList, int wordNum) {
+        this.depot = depot;
+        this.words = new long[wordNum];
+        for (Integer fenceIndex : fenceIndexList) {
+            VisitedSet.add(this.words, 0, fenceIndex);
+        }
+        long h = depot * 0x9E3779B97F4A7C15L;
+        for (long word : this.words) {
+            h = (h ^ word) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        this.hash = h;
+    }
+
+    public int getDepot() {
+        return depot;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RouteKey other)) {
+            return false;
+        }
+        return this.hash == other.hash && this.depot == other.depot && Arrays.equals(this.words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash);
+    }
+}
@@ -0,0 +1,67 @@
+package algo;
+
+import java.util.SplittableRandom;
+
+/**
+ * 定长long字已访问集合的基本运算：集合以long[]中从offset起的wordNum个字表示，
+ * 第i个节点对应第(i>>>6)个字的第(i&63)位；所有运算均不分配对象
+ * 集合哈希采用Zobrist方式（各节点随机键异或），可随节点加入增量更新
+ */
+public final class VisitedSet {
+    private static final long ZOBRIST_SEED = 0x5DEECE66DL;
+
+    private VisitedSet() {
+    }
+
+    // 容纳节点0~maxIndex所需的long个数
+    public static int wordNum(int maxIndex) {
+        return (maxIndex + 1 + 63) >>> 6;
+    }
+
+    public static boolean contains(long[] words, int offset, int wordNum, int index) {
+        int word = index >>> 6;
+        return word < wordNum && (words[offset + word] & (1L << index)) != 0;
+    }
+
+    public static void add(long[] words, int offset, int index) {
+        words[offset + (index >>> 6)] |= 1L << index;
+    }
+
+    public static boolean equals(long[] words1, int offset1, long[] words2, int offset2, int wordNum) {
+        for (int w = 0; w < wordNum; w++) {
+            if (words1[offset1 + w] != words2[offset2 + w]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 集合1是否为集合2的子集
+    public static boolean isSubset(long[] words1, int offset1, long[] words2, int offset2, int wordNum) {
+        for (int w = 0; w < wordNum; w++) {
+            if ((words1[offset1 + w] & ~words2[offset2 + w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean intersects(long[] words1, int offset1, long[] words2, int offset2, int wordNum) {
+        for (int w = 0; w < wordNum; w++) {
+            if ((words1[offset1 + w] & words2[offset2 + w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 节点0~maxIndex的Zobrist键（固定种子，保证多次运行结果一致）
+    public static long[] zobristKeys(int maxIndex) {
+        SplittableRandom random = new SplittableRandom(ZOBRIST_SEED);
+        long[] keys = new long[maxIndex + 1];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        return keys;
+    }
+}
@@ -31,4 +31,27 @@ public class Constants {
     public static final Double DUAL_MULTIPLIER = 1.0; //对偶值额外调参（标准值是1）
     public static final Integer OUTPUT_INTERVAL = 100;
     public static final Integer ITERATION_COLUMN_NUM = 1000;
+    public static String DEPOT_SCHEDULE_POLICY = "ROUND_ROBIN"; // 多仓库调度："ROUND_ROBIN"逐仓库轮转；"WEIGHTED"按仓库可达围栏数（相对最少者的倍数）加权轮转
+    public static Integer MAX_DEPOT_EXPANSIONS = Integer.MAX_VALUE; // 单轮定价中每个仓库每个方向最多扩展的标签数
+    public static Boolean PARALLEL_PRICING_MODE = false; // 是否按起点仓库并行定价（每个仓库一个独立的标号搜索）
+    public static Boolean PARALLEL_DIRECTION_MODE = false; // 是否前后向并发扩展（前向、后向各一个线程，另设拼接线程）
+    public static final Integer PRICING_THREAD_NUM = Runtime.getRuntime().availableProcessors(); // 并行定价线程数
+    public static Boolean NG_ROUTE_MODE = false; // ng-route松弛：标签只记住ng邻域内的访问，拼接时再检查完整路径是否初等（该模式下固定使用PARETO支配）
+    public static final Integer NG_NEIGHBOURHOOD_SIZE = 8; // ng邻域大小（不含自身）
+    public static Boolean HEURISTIC_PRICING_MODE = false; // 分级定价：先只在每个围栏边际检验数最高的若干邻居上搜索，找不到改进列时再完整搜索
+    public static final Integer HEURISTIC_NEIGHBOUR_NUM = 10; // 启发式定价中每个标签扩展的后继数上限（按边际检验数取前若干个）
+    public static Boolean WARM_START_MODE = false; // 热启动：跨轮保留标签骨架并按新对偶重算检验数（仅EXACT支配+FIXED划分），否则每轮清空全部标签
+    public static final Long WARM_START_MAX_BYTES = 256L << 20; // 热启动保留的标签存储上限（字节，每个工作单元；每个标签含wordNum个long的已访问集合），超过后清空并释放
+    public static Boolean RC_THRESHOLD_MODE = false; // 定价只输出检验数大于RC_THRESHOLD的订单（最大化问题中其余订单无法改进主问题）；列生成收敛判断不受此开关影响
+    public static final Double RC_THRESHOLD = 1e-6; // 检验数阈值，同时用于列生成收敛判断
+    public static final Integer ORDER_POOL_CAPACITY_RATIO = 2; // 订单池容量为orderLimit的倍数（超出时淘汰检验数最小的订单）
+    public static String BIDIRECTIONAL_SPLIT = "FIXED"; // 前后向资源划分："FIXED"各方向距离/卸货量/访问数均限一半；"MIDPOINT"按动态距离中点划分，每条路径只在唯一位置拼接
+    public static final Double MIDPOINT_STEP_RATIO = 0.05; // MIDPOINT模式下每轮中点调整步长（占MAX_DISTANCE的比例）
+    public static String DOMINANCE_RULE = "EXACT"; // 标签支配规则："EXACT"已访问集合完全相同才支配；"PARETO"按距离/卸货量/访问数/已访问子集/检验数支配
+
+    // 数据结构参数
+    public static final Boolean DISTANCE_MATRIX_FLOAT_MODE = false; // 距离矩阵是否使用float存储（大规模算例节省内存）
+    public static final Boolean INSTANCE_SNAPSHOT_MODE = true; // 是否使用二进制快照加速算例加载（源XLSX变化时自动失效）
+    public static final String INSTANCE_SNAPSHOT_SUFFIX = ".snapshot";
+    public static final Boolean SPARSE_DISTANCE_MODE = true; // 列生成时用网格索引生成稀疏有效弧，不构建完整距离矩阵（baseline仍需完整矩阵）
 }
@@ -0,0 +1,53 @@
+package baseinfo;
+
+import lombok.Getter;
+
+/**
+ * 距离矩阵：单个行优先的一维基本类型数组存储，替代 List<List<Double>> 的装箱存储
+ * 行列下标均从0开始（围栏i对应下标i-1），可选float模式进一步减半内存占用
+ */
+@Getter
+public class DistanceMatrix {
+    private final int rowNum;
+    private final int colNum;
+    private final boolean floatMode;
+    private final double[] values;      // double模式下的数据（float模式为null）
+    private final float[] floatValues;  // float模式下的数据（double模式为null）
+
+    public DistanceMatrix(int rowNum, int colNum) {
+        this(rowNum, colNum, Constants.DISTANCE_MATRIX_FLOAT_MODE);
+    }
+
+    public DistanceMatrix(int rowNum, int colNum, boolean floatMode) {
+        if (rowNum < 0 || colNum < 0) {
+            throw new IllegalArgumentException("距离矩阵维度不能为负：" + rowNum + "x" + colNum);
+        }
+        this.rowNum = rowNum;
+        this.colNum = colNum;
+        this.floatMode = floatMode;
+        long length = (long) rowNum * colNum;
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("距离矩阵过大：" + rowNum + "x" + colNum);
+        }
+        this.values = floatMode ? null : new double[(int) length];
+        this.floatValues = floatMode ? new float[(int) length] : null;
+    }
+
+    public double get(int i, int j) {
+        int offset = i * colNum + j;
+        return floatMode ? floatValues[offset] : values[offset];
+    }
+
+    public void set(int i, int j, double distance) {
+        int offset = i * colNum + j;
+        if (floatMode) {
+            floatValues[offset] = (float) distance;
+        } else {
+            values[offset] = distance;
+        }
+    }
+
+    public int size() {
+        return rowNum;
+    }
+}
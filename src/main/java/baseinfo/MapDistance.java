@@ -3,26 +3,23 @@ package baseinfo;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.io.FileInputStream;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
-
-import org.apache.poi.ss.usermodel.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 @Setter
 @Getter
 public class MapDistance {
     private ArrayList<ArrayList<Double>> mapList;
+    private static final int PARALLEL_ROW_THRESHOLD = 16; // 并行构建时单个任务处理的最大行数
 
-    public static List<List<Double>> calculateDistanceMatrix(List<double[]> coordinates) {
-        List<List<Double>> matrix = new ArrayList<>();
+    public static DistanceMatrix calculateDistanceMatrix(List<double[]> coordinates) {
         int n = coordinates.size();
+        DistanceMatrix matrix = new DistanceMatrix(n, n);
 
-        for (double[] coordinate : coordinates) {
-            List<Double> row = new ArrayList<>();
-            double[] point1 = coordinate;
+        for (int i = 0; i < n; i++) {
+            double[] point1 = coordinates.get(i);
 
             for (int j = 0; j < n; j++) {
                 double[] point2 = coordinates.get(j);
@@ -30,15 +27,81 @@ public class MapDistance {
                         point1[1], point1[0],  // lat1, lon1
                         point2[1], point2[0]   // lat2, lon2
                 );
-                row.add(distance);
+                matrix.set(i, j, distance);
             }
-
-            matrix.add(row);
         }
 
         return matrix;
     }
 
+    /**
+     * 并行构建距离矩阵：矩阵对称，仅计算上三角并镜像写入；按行区间拆分到ForkJoinPool，
+     * 弧度与cos(lat)对每个点只预计算一次
+     */
+    public static DistanceMatrix calculateDistanceMatrixParallel(List<double[]> coordinates) {
+        int n = coordinates.size();
+        DistanceMatrix matrix = new DistanceMatrix(n, n);
+        double[] radLats = new double[n];
+        double[] radLons = new double[n];
+        double[] cosLats = new double[n];
+        for (int i = 0; i < n; i++) {
+            double[] point = coordinates.get(i);
+            radLats[i] = Math.toRadians(point[1]);
+            radLons[i] = Math.toRadians(point[0]);
+            cosLats[i] = Math.cos(radLats[i]);
+        }
+        ForkJoinPool.commonPool().invoke(new DistanceRowTask(matrix, radLats, radLons, cosLats, 0, n));
+        return matrix;
+    }
+
+    // 按行区间递归拆分的上三角距离计算任务（不同行区间写入的单元格互不重叠）
+    private static class DistanceRowTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient DistanceMatrix matrix; // 任务只在ForkJoinPool内执行，不会被序列化
+        private final double[] radLats;
+        private final double[] radLons;
+        private final double[] cosLats;
+        private final int startRow;
+        private final int endRow;
+
+        DistanceRowTask(DistanceMatrix matrix, double[] radLats, double[] radLons, double[] cosLats, int startRow, int endRow) {
+            this.matrix = matrix;
+            this.radLats = radLats;
+            this.radLons = radLons;
+            this.cosLats = cosLats;
+            this.startRow = startRow;
+            this.endRow = endRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (endRow - startRow <= PARALLEL_ROW_THRESHOLD) {
+                for (int i = startRow; i < endRow; i++) {
+                    computeRow(i);
+                }
+                return;
+            }
+            int midRow = (startRow + endRow) >>> 1;
+            invokeAll(new DistanceRowTask(matrix, radLats, radLons, cosLats, startRow, midRow),
+                    new DistanceRowTask(matrix, radLats, radLons, cosLats, midRow, endRow));
+        }
+
+        private void computeRow(int i) {
+            matrix.set(i, i, 0.0);
+            for (int j = i + 1; j < radLats.length; j++) {
+                // Haversine公式（与calculateSphericalDistance一致，弧度与cos(lat)已预计算）
+                double sinHalfDeltaLat = Math.sin((radLats[j] - radLats[i]) / 2);
+                double sinHalfDeltaLon = Math.sin((radLons[j] - radLons[i]) / 2);
+                double a = sinHalfDeltaLat * sinHalfDeltaLat
+                        + cosLats[i] * cosLats[j] * sinHalfDeltaLon * sinHalfDeltaLon;
+                double distance = Constants.EARTH_RADIUS * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+                matrix.set(i, j, distance);
+                matrix.set(j, i, distance);
+            }
+        }
+    }
+
     public static double calculateSphericalDistance(double lat1, double lon1, double lat2, double lon2) {
         // 将角度转换为弧度
         double radLat1 = Math.toRadians(lat1);
@@ -59,103 +122,4 @@ public class MapDistance {
         // 计算距离（千米）
         return Constants.EARTH_RADIUS * c;
     }
-
-    public static List<List<Double>> initialDistanceMatrix() {
-        System.out.println("开始生成距离矩阵...");
-        // XLSX文件路径
-        String xlsxFilePath = (Objects.equals(Constants.ALGO_MODE, "CG") ? Constants.allPointsFilePath : Constants.allPointsTestFilePath);
-
-        // 存储所有点的经纬度（lon, lat）
-        List<double[]> coordinates = new ArrayList<>();
-
-        try (FileInputStream fis = new FileInputStream(xlsxFilePath);
-             Workbook workbook = WorkbookFactory.create(fis)) {
-
-            // 读取第一个工作表（索引从0开始）
-            Sheet sheet = workbook.getSheetAt(0);
-
-            // 跳过表头行（第0行），从第1行开始读取数据
-            for (int rowNum = 1; rowNum <= sheet.getLastRowNum(); rowNum++) {
-                Row row = sheet.getRow(rowNum);
-                if (row == null) continue; // 跳过空行
-
-                Cell lonCell = row.getCell(1);
-                Cell latCell = row.getCell(2);
-                if (lonCell == null || latCell == null) continue; // 跳过经纬度为空的行
-
-                // 解析经纬度（确保单元格格式为数字）
-                double lon = lonCell.getNumericCellValue();
-                double lat = latCell.getNumericCellValue();
-
-                coordinates.add(new double[]{lon, lat});
-            }
-
-            System.out.println("成功读取 " + coordinates.size() + " 个点的数据");
-
-            // 计算距离矩阵
-            List<List<Double>> distanceMatrix = calculateDistanceMatrix(coordinates);
-
-            System.out.println("距离矩阵大小: " + distanceMatrix.size() + "x" + distanceMatrix.getFirst().size());
-            return distanceMatrix;
-        } catch (IOException e) {
-            System.err.println("读取XLSX文件时出错: " + e.getMessage());
-            e.printStackTrace();
-        } catch (Exception e) {
-            System.err.println("处理数据时出错: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return null;
-    }
-
-    public static List<double[]> initialDepotMap() {
-        List<double[]> fenceCoordinates = new ArrayList<>();
-        try (FileInputStream fis = new FileInputStream(Objects.equals(Constants.ALGO_MODE, "CG") ? Constants.allPointsFilePath:Constants.allPointsTestFilePath);
-             Workbook workbook = WorkbookFactory.create(fis)) {
-
-            Sheet sheet = workbook.getSheetAt(0);
-            // 跳过表头行（第0行），从第1行开始读取（与MapDistance保持一致）
-            for (int rowNum = 1; rowNum <= sheet.getLastRowNum(); rowNum++) {
-                Row row = sheet.getRow(rowNum);
-                if (row == null) continue;
-
-                // 解析经纬度：B列（索引1）=经度，C列（索引2）=纬度（兼容数字/字符串）
-                double longitude = getCellValueAsDouble(row.getCell(1));
-                double latitude = getCellValueAsDouble(row.getCell(2));
-
-                // 过滤无效经纬度（如NaN）
-                if (!Double.isNaN(longitude) && !Double.isNaN(latitude)) {
-                    fenceCoordinates.add(new double[]{longitude, latitude});
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("读取围栏坐标失败：" + e.getMessage());
-            return new ArrayList<>();
-        }
-        return fenceCoordinates;
-    }
-
-    private static double getCellValueAsDouble(Cell cell) {
-        if (cell == null) {
-            return Double.NaN; // 单元格为空返回无效值
-        }
-
-        switch (cell.getCellType()) {
-            case NUMERIC:
-                // 数字类型直接读取
-                return cell.getNumericCellValue();
-            case STRING:
-                // 字符串类型：去除空格后尝试转为double
-                String cellValue = cell.getStringCellValue().trim();
-                try {
-                    return Double.parseDouble(cellValue);
-                } catch (NumberFormatException e) {
-                    System.err.println("字符串单元格转换为数字失败：" + cellValue);
-                    return Double.NaN;
-                }
-            default:
-                // 其他类型（如公式、布尔值）视为无效
-                System.err.println("不支持的单元格类型：" + cell.getCellType());
-                return Double.NaN;
-        }
-    }
 }
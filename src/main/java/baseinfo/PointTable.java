@@ -0,0 +1,56 @@
+package baseinfo;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 点数据表：流式读取XLSX后得到的基本类型列数组
+ * 围栏表对应all_points（B列经度、C列纬度、D~G列需求），仓库表对应candidate_points（A列经度、B列纬度）
+ * 缺失或无法解析的单元格记为NaN，行号为工作表中的0基行号（与usermodel的getRowNum一致）
+ */
+@Getter
+public class PointTable {
+    private final int fenceRowNum;
+    private final double[] fenceLons;
+    private final double[] fenceLats;
+    private final double[] totalDemands;
+    private final double[] selfDemands;
+    private final double[] depotDemands;
+    private final double[] deliverDemands;
+
+    private final int candidateRowNum;
+    private final int[] candidateSheetRows;
+    private final double[] candidateLons;
+    private final double[] candidateLats;
+
+    public PointTable(int fenceRowNum, double[] fenceLons, double[] fenceLats, double[] totalDemands,
+                      double[] selfDemands, double[] depotDemands, double[] deliverDemands,
+                      int candidateRowNum, int[] candidateSheetRows, double[] candidateLons, double[] candidateLats) {
+        this.fenceRowNum = fenceRowNum;
+        this.fenceLons = fenceLons;
+        this.fenceLats = fenceLats;
+        this.totalDemands = totalDemands;
+        this.selfDemands = selfDemands;
+        this.depotDemands = depotDemands;
+        this.deliverDemands = deliverDemands;
+        this.candidateRowNum = candidateRowNum;
+        this.candidateSheetRows = candidateSheetRows;
+        this.candidateLons = candidateLons;
+        this.candidateLats = candidateLats;
+    }
+
+    /**
+     * 经纬度均有效的围栏坐标（lon, lat），跳过经度或纬度缺失的行
+     */
+    public List<double[]> fenceCoordinates() {
+        List<double[]> coordinates = new ArrayList<>(fenceRowNum);
+        for (int i = 0; i < fenceRowNum; i++) {
+            if (!Double.isNaN(fenceLons[i]) && !Double.isNaN(fenceLats[i])) {
+                coordinates.add(new double[]{fenceLons[i], fenceLats[i]});
+            }
+        }
+        return coordinates;
+    }
+}
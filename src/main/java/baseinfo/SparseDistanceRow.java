@@ -0,0 +1,32 @@
+package baseinfo;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * 稀疏距离行：仅保存半径范围内的目标点（按下标升序）及对应距离
+ * 目标下标从0开始（围栏i对应下标i-1），不在行内的目标视为不可达
+ */
+@Getter
+public class SparseDistanceRow {
+    private final int[] targets;       // 目标点下标（升序）
+    private final double[] distances;  // 与targets一一对应的距离（千米）
+
+    public SparseDistanceRow(int[] targets, double[] distances) {
+        if (targets.length != distances.length) {
+            throw new IllegalArgumentException("稀疏距离行长度不一致：" + targets.length + " vs " + distances.length);
+        }
+        this.targets = targets;
+        this.distances = distances;
+    }
+
+    public double get(int target) {
+        int position = Arrays.binarySearch(targets, target);
+        return position >= 0 ? distances[position] : Double.POSITIVE_INFINITY;
+    }
+
+    public int size() {
+        return targets.length;
+    }
+}
@@ -0,0 +1,131 @@
+package baseinfo;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 均匀经纬度网格索引：按查询半径划分网格，半径查询只扫描查询点附近的网格，
+ * 使有效弧的构建从O(n²)降为O(n·k)（k为邻域内点数）
+ * 网格采用CSR布局（cellStart + cellPoints）存储，点下标从0开始，与坐标列表顺序一致
+ */
+@Getter
+public class SpatialGridIndex {
+    private final double radius;       // 网格对应的查询半径（千米）
+    private final double[] lons;
+    private final double[] lats;
+    private final double minLon;
+    private final double minLat;
+    private final double lonCellSize;  // 网格经度跨度（度）
+    private final double latCellSize;  // 网格纬度跨度（度）
+    private final double minCosLat;    // 数据点cos(lat)的最小值（用于保守估计经度搜索范围）
+    private final int colNum;
+    private final int rowNum;
+    private final int[] cellStart;
+    private final int[] cellPoints;
+
+    public SpatialGridIndex(List<double[]> coordinates, double radius) {
+        int n = coordinates.size();
+        this.radius = radius;
+        this.lons = new double[n];
+        this.lats = new double[n];
+        double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minCosLat = 1.0;
+        for (int i = 0; i < n; i++) {
+            double[] point = coordinates.get(i);
+            lons[i] = point[0];
+            lats[i] = point[1];
+            minLon = Math.min(minLon, lons[i]);
+            maxLon = Math.max(maxLon, lons[i]);
+            minLat = Math.min(minLat, lats[i]);
+            maxLat = Math.max(maxLat, lats[i]);
+            double cosLat = Math.cos(Math.toRadians(lats[i]));
+            minCosLat = Math.min(minCosLat, cosLat);
+        }
+        this.minLon = n == 0 ? 0.0 : minLon;
+        this.minLat = n == 0 ? 0.0 : minLat;
+        this.minCosLat = minCosLat;
+
+        // 纬度方向：经线弧长不超过球面距离，半径对应的纬度差即为网格高度
+        this.latCellSize = Math.max(Math.toDegrees(radius / Constants.EARTH_RADIUS), 1e-9);
+        // 经度方向：按数据中最高纬度（最小cos）估计半径对应的经度差，查询时再按实际纬度扩展
+        this.lonCellSize = Math.max(maxLonDelta(minCosLat * minCosLat), 1e-9);
+        this.colNum = n == 0 ? 1 : (int) Math.floor((maxLon - this.minLon) / lonCellSize) + 1;
+        this.rowNum = n == 0 ? 1 : (int) Math.floor((maxLat - this.minLat) / latCellSize) + 1;
+
+        // CSR：先计数，再前缀和，最后回填
+        this.cellStart = new int[colNum * rowNum + 1];
+        int[] pointCell = new int[n];
+        for (int i = 0; i < n; i++) {
+            pointCell[i] = cellOf(colOf(lons[i]), rowOf(lats[i]));
+            cellStart[pointCell[i] + 1]++;
+        }
+        for (int c = 0; c < colNum * rowNum; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        this.cellPoints = new int[n];
+        int[] cursor = Arrays.copyOf(cellStart, colNum * rowNum);
+        for (int i = 0; i < n; i++) {
+            cellPoints[cursor[pointCell[i]]++] = i;
+        }
+    }
+
+    /**
+     * 查询与(lon, lat)球面距离不超过radius的所有点，结果按点下标升序
+     */
+    public SparseDistanceRow queryWithin(double lon, double lat) {
+        int queryCol = colOf(lon);
+        int queryRow = rowOf(lat);
+        double cosLat = Math.cos(Math.toRadians(lat));
+        int colSpan = (int) Math.min(colNum, Math.ceil(maxLonDelta(cosLat * minCosLat) / lonCellSize));
+
+        int[] candidates = new int[16];
+        int candidateNum = 0;
+        for (int row = Math.max(0, queryRow - 1); row <= Math.min(rowNum - 1, queryRow + 1); row++) {
+            for (int col = Math.max(0, queryCol - colSpan); col <= Math.min(colNum - 1, queryCol + colSpan); col++) {
+                int cell = cellOf(col, row);
+                for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                    if (candidateNum == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, candidateNum * 2);
+                    }
+                    candidates[candidateNum++] = cellPoints[p];
+                }
+            }
+        }
+        Arrays.sort(candidates, 0, candidateNum);
+
+        int[] targets = new int[candidateNum];
+        double[] distances = new double[candidateNum];
+        int size = 0;
+        for (int c = 0; c < candidateNum; c++) {
+            int pointIdx = candidates[c];
+            double distance = MapDistance.calculateSphericalDistance(lat, lon, lats[pointIdx], lons[pointIdx]);
+            if (distance <= radius) {
+                targets[size] = pointIdx;
+                distances[size] = distance;
+                size++;
+            }
+        }
+        return new SparseDistanceRow(Arrays.copyOf(targets, size), Arrays.copyOf(distances, size));
+    }
+
+    // 球面距离不超过radius时两点的最大经度差（度），cosProduct为两点cos(lat)之积
+    private double maxLonDelta(double cosProduct) {
+        double ratio = radius / (2 * Constants.EARTH_RADIUS * Math.sqrt(Math.max(cosProduct, 1e-12)));
+        return ratio >= 1.0 ? 360.0 : Math.toDegrees(2 * Math.asin(ratio));
+    }
+
+    private int colOf(double lon) {
+        return (int) Math.floor((lon - minLon) / lonCellSize);
+    }
+
+    private int rowOf(double lat) {
+        return (int) Math.floor((lat - minLat) / latCellSize);
+    }
+
+    private int cellOf(int col, int row) {
+        return row * colNum + col;
+    }
+}
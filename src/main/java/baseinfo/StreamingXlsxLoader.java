@@ -0,0 +1,196 @@
+package baseinfo;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * 流式XLSX加载器：基于POI事件模型（SAX）逐行读取第一个工作表，不构建整个Workbook的DOM，
+ * 围栏文件与候选仓库文件各只读取一次，结果以基本类型数组存入PointTable
+ */
+public class StreamingXlsxLoader {
+
+    public static PointTable load() throws IOException {
+        boolean isFullData = Objects.equals(Constants.ALGO_MODE, "CG");
+        return load(isFullData ? Constants.allPointsFilePath : Constants.allPointsTestFilePath,
+                isFullData ? Constants.candidatePointsFilePath : Constants.candidatePointsTestFilePath);
+    }
+
+    public static PointTable load(String pointsFilePath, String candidateFilePath) throws IOException {
+        System.out.println("开始流式读取点数据...");
+        // 围栏：B列经度、C列纬度、D~G列总需求/自提需求/仓库需求/配送需求
+        SheetColumns fenceColumns = readFirstSheet(pointsFilePath, 7);
+        // 候选仓库：A列经度、B列纬度
+        SheetColumns candidateColumns = readFirstSheet(candidateFilePath, 2);
+        System.out.println("成功读取 " + fenceColumns.rowNum + " 个围栏点、" + candidateColumns.rowNum + " 个候选仓库点");
+        return new PointTable(
+                fenceColumns.rowNum,
+                fenceColumns.column(1), fenceColumns.column(2),
+                fenceColumns.column(3), fenceColumns.column(4), fenceColumns.column(5), fenceColumns.column(6),
+                candidateColumns.rowNum,
+                Arrays.copyOf(candidateColumns.sheetRows, candidateColumns.rowNum),
+                candidateColumns.column(0), candidateColumns.column(1));
+    }
+
+    // 读取第一个工作表的前columnNum列（跳过表头行），单元格统一解析为double
+    private static SheetColumns readFirstSheet(String filePath, int columnNum) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(new File(filePath), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            SharedStrings sharedStrings = reader.getSharedStringsTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            SheetColumns columns = new SheetColumns(columnNum);
+            if (!sheets.hasNext()) {
+                return columns;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new SheetHandler(sharedStrings, columns));
+                parser.parse(new InputSource(sheet));
+            }
+            return columns;
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("流式读取XLSX失败（" + filePath + "）：" + e.getMessage(), e);
+        }
+    }
+
+    // 按列存储的可增长double数组
+    private static class SheetColumns {
+        private final double[][] values;
+        private int[] sheetRows = new int[64];
+        private int rowNum = 0;
+
+        SheetColumns(int columnNum) {
+            this.values = new double[columnNum][64];
+        }
+
+        void startRow(int sheetRow) {
+            if (rowNum == sheetRows.length) {
+                sheetRows = Arrays.copyOf(sheetRows, rowNum * 2);
+                for (int c = 0; c < values.length; c++) {
+                    values[c] = Arrays.copyOf(values[c], rowNum * 2);
+                }
+            }
+            sheetRows[rowNum] = sheetRow;
+            for (double[] column : values) {
+                column[rowNum] = Double.NaN;
+            }
+            rowNum++;
+        }
+
+        void setCell(int column, double value) {
+            if (column >= 0 && column < values.length && rowNum > 0) {
+                values[column][rowNum - 1] = value;
+            }
+        }
+
+        double[] column(int column) {
+            return Arrays.copyOf(values[column], rowNum);
+        }
+    }
+
+    // 工作表SAX处理器：只关心<row>、<c>、<v>以及内联字符串<is><t>
+    private static class SheetHandler extends DefaultHandler {
+        private final SharedStrings sharedStrings;
+        private final SheetColumns columns;
+        private final StringBuilder text = new StringBuilder();
+        private boolean inDataRow = false;
+        private boolean inValue = false;
+        private int sheetRow = -1;
+        private int cellColumn = -1;
+        private String cellType = null;
+
+        SheetHandler(SharedStrings sharedStrings, SheetColumns columns) {
+            this.sharedStrings = sharedStrings;
+            this.columns = columns;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row" -> {
+                    // r属性为1基行号（可省略，省略时按顺序递增），第1行为表头
+                    String rowReference = attributes.getValue("r");
+                    sheetRow = rowReference != null ? Integer.parseInt(rowReference) - 1 : sheetRow + 1;
+                    cellColumn = -1;
+                    inDataRow = sheetRow >= 1;
+                    if (inDataRow) {
+                        columns.startRow(sheetRow);
+                    }
+                }
+                case "c" -> {
+                    String cellReference = attributes.getValue("r");
+                    cellColumn = cellReference != null ? columnIndex(cellReference) : cellColumn + 1;
+                    cellType = attributes.getValue("t");
+                }
+                case "v", "t" -> {
+                    inValue = true;
+                    text.setLength(0);
+                }
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if (("v".equals(localName) || "t".equals(localName)) && inValue) {
+                inValue = false;
+                if (inDataRow) {
+                    columns.setCell(cellColumn, parseCell(text.toString()));
+                }
+            } else if ("c".equals(localName)) {
+                cellType = null;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inValue) {
+                text.append(ch, start, length);
+            }
+        }
+
+        // 数字直接解析，字符串（共享/内联）去空格后尝试转为数字，其他类型视为无效
+        private double parseCell(String raw) {
+            String value = raw;
+            if ("s".equals(cellType)) {
+                value = sharedStrings.getItemAt(Integer.parseInt(raw.trim())).getString();
+            } else if ("b".equals(cellType) || "e".equals(cellType)) {
+                return Double.NaN;
+            }
+            try {
+                return Double.parseDouble(value.trim());
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+
+        // 单元格引用（如"B12"）转换为0基列号
+        private static int columnIndex(String cellReference) {
+            int column = 0;
+            for (int i = 0; i < cellReference.length(); i++) {
+                char ch = cellReference.charAt(i);
+                if (ch < 'A' || ch > 'Z') {
+                    break;
+                }
+                column = column * 26 + (ch - 'A' + 1);
+            }
+            return column - 1;
+        }
+    }
+}
@@ -1,12 +1,14 @@
 package impl;
 
 import baseinfo.Constants;
+import baseinfo.DistanceMatrix;
 import baseinfo.MapDistance;
+import baseinfo.SparseDistanceRow;
+import baseinfo.SpatialGridIndex;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 @Setter
@@ -20,7 +22,9 @@ public class Depot {
     private double nearestDiffLabelDist;
     private String constName;
     private double originalDepotValue;
-    private final HashMap<Integer, Double> depotMap; // 围栏index→距离映射
+    private DistanceMatrix distanceMatrix; // 仓库→围栏距离矩阵（列下标=围栏index-1）
+    private int matrixRow;                 // 本仓库在距离矩阵中的行号
+    private SparseDistanceRow sparseDistanceRow; // 稀疏模式下仅保存有效弧范围内的距离
     private int minDispatchNum;
     private int maxDispatchNum;
 
@@ -29,38 +33,55 @@ public class Depot {
         this.index = index;
         this.longitude = longitude;
         this.latitude = latitude;
-        this.depotMap = new HashMap<>();
         this.validArcFence = new ArrayList<>();
         this.constName = "D" + index;
         this.nearestDiffLabelDist = 9999.0;
     }
 
     public void generateDistanceMap(List<double[]> fenceCoordinates){
-        for (Integer index = 0; index < fenceCoordinates.size(); index++) {
+        setDistanceMatrix(new DistanceMatrix(1, fenceCoordinates.size()), 0);
+        for (int index = 0; index < fenceCoordinates.size(); index++) {
             double[] fence = fenceCoordinates.get(index);
             // 调用MapDistance的球面距离计算方法
             double distance = MapDistance.calculateSphericalDistance(
                     latitude, longitude,  // Depot的纬度、经度
                     fence[1], fence[0]   // 围栏的纬度（fence[1]）、经度（fence[0]）
             );
-            depotMap.put(index + 1, distance);
+            distanceMatrix.set(matrixRow, index, distance);
             if (distance <= Constants.MAX_DISTANCE / 2){
                 validArcFence.add(index + 1);
             }
         }
     }
 
-    public Double getDistance(Integer endFence) {
-        return this.depotMap.get(endFence);
+    // 稀疏模式：通过围栏网格索引只查询有效弧半径内的围栏
+    public void generateDistanceMap(SpatialGridIndex fenceIndex){
+        this.sparseDistanceRow = fenceIndex.queryWithin(longitude, latitude);
+        for (int targetIndex : sparseDistanceRow.getTargets()) {
+            validArcFence.add(targetIndex + 1);
+        }
+    }
+
+    public void setDistanceMatrix(DistanceMatrix distanceMatrix, int matrixRow) {
+        this.distanceMatrix = distanceMatrix;
+        this.matrixRow = matrixRow;
+    }
+
+    public double getDistance(int endFence) {
+        if (this.distanceMatrix != null) {
+            return this.distanceMatrix.get(matrixRow, endFence - 1);
+        }
+        return this.sparseDistanceRow.get(endFence - 1);
     }
 
-    public Double getDistance(Fence endFence) {
-        return this.depotMap.get(endFence.getIndex());
+    public double getDistance(Fence endFence) {
+        return getDistance(endFence.getIndex());
     }
 
     public Fence depot2Fence(Integer index){
         Fence fence = new Fence(index, longitude, latitude, 0.0, 0.0, 0.0, 0.0, 0.0, true);
-        fence.setDistanceMap(depotMap);
+        fence.setDistanceMatrix(distanceMatrix, matrixRow);
+        fence.setSparseDistanceRow(sparseDistanceRow);
         fence.setFenceValue(0);
         fence.setMinDispatchNum(0.0);
         fence.setMaxDispatchNum(0.0);
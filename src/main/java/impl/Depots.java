@@ -1,10 +1,10 @@
 package impl;
 
+import baseinfo.DistanceMatrix;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
 
@@ -14,6 +14,8 @@ public class Depots {
     private ArrayList<Depot> depotList;
     private ArrayList<Integer> depotIndexList;
     private int depotNum;
+    private Depot[] depotLookup;   // 稠密索引：depotLookup[index - lookupOffset]（仓库index为负）
+    private int lookupOffset;
 
     public Depots(){
         depotList = new ArrayList<Depot>();
@@ -21,7 +23,19 @@ public class Depots {
         depotNum = 0;
     }
 
+    // 批量设置仓库时一次性建立索引
+    public void setDepotList(ArrayList<Depot> depotList) {
+        this.depotList = depotList;
+        buildDepotLookup();
+    }
+
     public Depot getDepot(Integer depotIndex) {
+        if (depotLookup != null && depotIndex != null) {
+            int position = depotIndex - lookupOffset;
+            if (position >= 0 && position < depotLookup.length && depotLookup[position] != null) {
+                return depotLookup[position];
+            }
+        }
         for (Depot depot : depotList) {
             if (Objects.equals(depot.getIndex(), depotIndex)) {
                 return depot;
@@ -41,14 +55,43 @@ public class Depots {
                 depotNum += 1;
             }
         }
+        buildDepotLookup();
     }
 
-    public List<HashMap<Integer, Double>> generateDepotDistanceMatrix() {
-        List<HashMap<Integer, Double>> depotDistanceMatrix = new ArrayList<>();
-        if (depotList != null) {
-            for (Depot depot : depotList) {
-                depotDistanceMatrix.add(depot.getDepotMap());
+    // 按仓库index（负数）偏移后建立稠密数组索引，使getDepot为O(1)
+    private void buildDepotLookup() {
+        if (depotList == null || depotList.isEmpty()) {
+            depotLookup = null;
+            return;
+        }
+        int minIndex = Integer.MAX_VALUE;
+        int maxIndex = Integer.MIN_VALUE;
+        for (Depot depot : depotList) {
+            minIndex = Math.min(minIndex, depot.getIndex());
+            maxIndex = Math.max(maxIndex, depot.getIndex());
+        }
+        lookupOffset = minIndex;
+        depotLookup = new Depot[maxIndex - minIndex + 1];
+        for (Depot depot : depotList) {
+            if (depotLookup[depot.getIndex() - lookupOffset] == null) {
+                depotLookup[depot.getIndex() - lookupOffset] = depot;
+            }
+        }
+    }
+
+    // 合并各仓库的距离行为一个矩阵（行=仓库顺序，列=围栏index-1），并让仓库改为引用合并后的矩阵
+    public DistanceMatrix generateDepotDistanceMatrix() {
+        if (depotList == null || depotList.isEmpty()) {
+            return new DistanceMatrix(0, 0);
+        }
+        int fenceNum = depotList.getFirst().getDistanceMatrix().getColNum();
+        DistanceMatrix depotDistanceMatrix = new DistanceMatrix(depotList.size(), fenceNum);
+        for (int row = 0; row < depotList.size(); row++) {
+            Depot depot = depotList.get(row);
+            for (int col = 0; col < fenceNum; col++) {
+                depotDistanceMatrix.set(row, col, depot.getDistance(col + 1));
             }
+            depot.setDistanceMatrix(depotDistanceMatrix, row);
         }
         return depotDistanceMatrix;
     }
@@ -1,12 +1,14 @@
 package impl;
 
 import baseinfo.Constants;
+import baseinfo.DistanceMatrix;
+import baseinfo.SparseDistanceRow;
+import baseinfo.SpatialGridIndex;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Comparator;
 
 @Setter
 @Getter
@@ -19,11 +21,14 @@ public class Fence {
     private Double depotDemand;
     private Double deliverDemand;
     private Double originalFenceValue;
-    private HashMap<Integer, Double> distanceMap;
+    private DistanceMatrix distanceMatrix; // 共享距离矩阵（不再逐围栏复制为HashMap）
+    private int matrixRow;                 // 本围栏在距离矩阵中的行号
+    private SparseDistanceRow sparseDistanceRow; // 稀疏模式下仅保存有效弧范围内的距离
     private double fenceValue;
     private double minDispatchNum;
     private double maxDispatchNum;
     private ArrayList<Integer> vaildArcFence;
+    private ArrayList<Integer> ngNeighbourhood; // ng-route邻域：自身 + 有效弧中最近的若干围栏
     private double nearestDiffLabelDist;
     private String constName;
     private Boolean isFakeFence;
@@ -36,7 +41,6 @@ public class Fence {
         this.selfDemand = selfDemand;
         this.depotDemand = depotDemand;
         this.deliverDemand = deliverDemand;
-        this.distanceMap = new HashMap<>();
         this.constName = "F" + index;
         this.vaildArcFence = new ArrayList<>();
         this.originalFenceValue = unitPrice;
@@ -44,23 +48,52 @@ public class Fence {
         this.isFakeFence = isFakeFence;
     }
 
-    public void generateDistanceMap(List<List<Double>> distanceMatrix){
-        List<Double> distances = distanceMatrix.get(index - 1);
-        for (Integer targetIndex = 0; targetIndex < distances.size(); targetIndex++) {
-            Double distance = distances.get(targetIndex);
-            distanceMap.put(targetIndex + 1, distance);
+    public void generateDistanceMap(DistanceMatrix distanceMatrix){
+        setDistanceMatrix(distanceMatrix, index - 1);
+        for (int targetIndex = 0; targetIndex < distanceMatrix.getColNum(); targetIndex++) {
+            double distance = distanceMatrix.get(matrixRow, targetIndex);
             if (distance <= Constants.MAX_DISTANCE / 2){
                 vaildArcFence.add(targetIndex + 1);
             }
         }
     }
 
-    public Double getDistance(Integer endFence) {
-        return this.distanceMap.get(endFence);
+    // 稀疏模式：通过网格索引只查询有效弧半径内的围栏，不再依赖完整距离矩阵
+    public void generateDistanceMap(SpatialGridIndex spatialIndex){
+        this.sparseDistanceRow = spatialIndex.queryWithin(lon, lat);
+        for (int targetIndex : sparseDistanceRow.getTargets()) {
+            vaildArcFence.add(targetIndex + 1);
+        }
+    }
+
+    public void setDistanceMatrix(DistanceMatrix distanceMatrix, int matrixRow) {
+        this.distanceMatrix = distanceMatrix;
+        this.matrixRow = matrixRow;
+    }
+
+    public double getDistance(int endFence) {
+        if (this.distanceMatrix != null) {
+            return this.distanceMatrix.get(matrixRow, endFence - 1);
+        }
+        return this.sparseDistanceRow.get(endFence - 1);
+    }
+
+    public double getDistance(Fence endFence) {
+        return getDistance(endFence.getIndex());
     }
 
-    public Double getDistance(Fence endFence) {
-        return this.distanceMap.get(endFence.getIndex());
+    // ng邻域：自身 + 有效弧中距离最近的neighbourNum个围栏（不含999虚拟节点）
+    public void generateNgNeighbourhood(int neighbourNum) {
+        ArrayList<Integer> candidates = new ArrayList<>();
+        for (Integer targetIndex : vaildArcFence) {
+            if (targetIndex != 999 && !targetIndex.equals(index)) {
+                candidates.add(targetIndex);
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(targetIndex -> getDistance(targetIndex)));
+        this.ngNeighbourhood = new ArrayList<>();
+        this.ngNeighbourhood.add(index);
+        this.ngNeighbourhood.addAll(candidates.subList(0, Math.min(neighbourNum, candidates.size())));
     }
 
     public void addFakeDepot() {
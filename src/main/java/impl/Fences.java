@@ -13,6 +13,8 @@ public class Fences {
     private ArrayList<Fence> fenceList;
     private ArrayList<Integer> fenceIndexList;
     private int fenceNum;
+    private Fence[] fenceLookup;   // 稠密索引：fenceLookup[index - lookupOffset]
+    private int lookupOffset;
 
     public Fences(){
         fenceList = new ArrayList<Fence>();
@@ -20,7 +22,19 @@ public class Fences {
         fenceNum = 0;
     }
 
+    // 批量设置围栏时一次性建立索引
+    public void setFenceList(ArrayList<Fence> fenceList) {
+        this.fenceList = fenceList;
+        buildFenceLookup();
+    }
+
     public Fence getFence(Integer fenceIndex) {
+        if (fenceLookup != null && fenceIndex != null) {
+            int position = fenceIndex - lookupOffset;
+            if (position >= 0 && position < fenceLookup.length && fenceLookup[position] != null) {
+                return fenceLookup[position];
+            }
+        }
         for (Fence fence : fenceList) {
             if (Objects.equals(fence.getIndex(), fenceIndex)) {
                 return fence;
@@ -37,10 +51,50 @@ public class Fences {
                 fenceNum += 1;
             }
         }
+        buildFenceLookup();
+    }
+
+    // 按围栏index建立稠密数组索引，使getFence为O(1)
+    private void buildFenceLookup() {
+        if (fenceList == null || fenceList.isEmpty()) {
+            fenceLookup = null;
+            return;
+        }
+        int minIndex = Integer.MAX_VALUE;
+        int maxIndex = Integer.MIN_VALUE;
+        for (Fence fence : fenceList) {
+            minIndex = Math.min(minIndex, fence.getIndex());
+            maxIndex = Math.max(maxIndex, fence.getIndex());
+        }
+        lookupOffset = minIndex;
+        fenceLookup = new Fence[maxIndex - minIndex + 1];
+        for (Fence fence : fenceList) {
+            if (fenceLookup[fence.getIndex() - lookupOffset] == null) {
+                fenceLookup[fence.getIndex() - lookupOffset] = fence;
+            }
+        }
     }
 
+    // 逐个加入围栏时增量维护索引：index超出当前范围才扩容（按倍数增长，逐个加载的总开销为O(n)）
     public void addFence(Fence fence) {
         this.fenceList.add(fence);
+        int index = fence.getIndex();
+        if (fenceLookup == null) {
+            lookupOffset = index;
+            fenceLookup = new Fence[16];
+        } else if (index < lookupOffset || index - lookupOffset >= fenceLookup.length) {
+            // 向越界的一侧至少扩容一倍
+            int oldEnd = lookupOffset + fenceLookup.length;
+            int newOffset = index < lookupOffset ? Math.min(index, lookupOffset - fenceLookup.length) : lookupOffset;
+            int newEnd = index >= oldEnd ? Math.max(index + 1, oldEnd + fenceLookup.length) : oldEnd;
+            Fence[] newLookup = new Fence[newEnd - newOffset];
+            System.arraycopy(fenceLookup, 0, newLookup, lookupOffset - newOffset, fenceLookup.length);
+            lookupOffset = newOffset;
+            fenceLookup = newLookup;
+        }
+        if (fenceLookup[index - lookupOffset] == null) {
+            fenceLookup[index - lookupOffset] = fence;
+        }
     }
 
     public int size() {
@@ -1,13 +1,19 @@
 package impl;
 
 import baseinfo.Constants;
+import baseinfo.DistanceMatrix;
 import baseinfo.MapDistance;
+import baseinfo.PointTable;
+import baseinfo.SpatialGridIndex;
+import baseinfo.StreamingXlsxLoader;
 import Utils.Initializer;
+import Utils.InstanceSnapshot;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 @Setter
@@ -19,25 +25,73 @@ public class Instance {
     private Depots depots;
     private MapDistance fenceMapDistance;
     private ArrayList<Carrier> carrierList;
-    private List<List<Double>> distanceMatrix;
-    private List<HashMap<Integer, Double>> depotDistanceMatrix;
+    private DistanceMatrix distanceMatrix;      // 围栏-围栏距离（下标=围栏index-1，稀疏模式下为null）
+    private DistanceMatrix depotDistanceMatrix; // 仓库-围栏距离（行=仓库顺序，列=围栏index-1，稀疏模式下为null）
+    private SpatialGridIndex spatialIndex;      // 围栏网格索引（仅稀疏模式）
     private Initializer initializer;
 
     public Instance() {
-        distanceMatrix = MapDistance.initialDistanceMatrix();
-        List<double []> depotMap = MapDistance.initialDepotMap();
         fences = new Fences();
         depots = new Depots();
         carriers = new Carriers();
         initializer = new Initializer();
-        depots.setDepotList(initializer.depotInitializer(depotMap));
-        fences.setFenceList(initializer.fenceInitializer(distanceMatrix));
+        orderList = null;
+        if (!Constants.INSTANCE_SNAPSHOT_MODE) {
+            buildFromSource();
+            return;
+        }
+
+        // 快照模式：校验和一致时直接加载快照，否则从XLSX构建并写出新快照
+        Path snapshotPath = InstanceSnapshot.snapshotPath();
+        Long checksum = null;
+        try {
+            checksum = InstanceSnapshot.sourceChecksum();
+            if (InstanceSnapshot.load(this, snapshotPath, checksum)) {
+                System.out.println("已从快照加载算例：" + snapshotPath);
+                return;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("读取算例快照失败，改为从XLSX构建：" + e.getMessage());
+        }
+        buildFromSource();
+        if (checksum != null && !fences.getFenceList().isEmpty()) {
+            try {
+                InstanceSnapshot.write(this, snapshotPath, checksum);
+                System.out.println("已写出算例快照：" + snapshotPath);
+            } catch (IOException e) {
+                System.err.println("写出算例快照失败：" + e.getMessage());
+            }
+        }
+    }
+
+    private void buildFromSource() {
+        // 流式读取围栏与候选仓库文件（各只读一次），坐标与需求直接进入基本类型数组
+        PointTable pointTable;
+        try {
+            pointTable = StreamingXlsxLoader.load();
+        } catch (IOException e) {
+            System.err.println("读取点数据失败：" + e.getMessage());
+            return;
+        }
+        List<double []> fenceCoordinates = pointTable.fenceCoordinates();
+        boolean sparseMode = InstanceSnapshot.isSparseMode();
+        if (sparseMode) {
+            spatialIndex = new SpatialGridIndex(fenceCoordinates, Constants.MAX_DISTANCE / 2);
+        } else {
+            System.out.println("开始生成距离矩阵...");
+            distanceMatrix = MapDistance.calculateDistanceMatrixParallel(fenceCoordinates);
+        }
+        fences = new Fences();
+        depots = new Depots();
+        depots.setDepotList(initializer.depotInitializer(pointTable, fenceCoordinates, spatialIndex));
+        fences.setFenceList(initializer.fenceInitializer(pointTable, distanceMatrix, spatialIndex));
         fences.generateFenceIndexList();
         depots.generateDepotIndexList();
-        depotDistanceMatrix = depots.generateDepotDistanceMatrix();
+        if (!sparseMode) {
+            depotDistanceMatrix = depots.generateDepotDistanceMatrix();
+        }
         carrierList = initializer.carrierInitializer(Constants.IS_DIFFERENT_CARRIER);
         carriers.setCarrierList(carrierList);
-        orderList = null;
     }
 
 }
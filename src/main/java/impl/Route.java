@@ -5,9 +5,6 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 @Setter
 @Getter
@@ -54,20 +51,4 @@ public class Route {
         this.visitNumber++;
         this.distance += distance;
     }
-
-    public String getRouteVitedString() {
-        List<Integer> allNodesInPath = new ArrayList<>(this.fenceList);
-
-        // 去重
-        List<Integer> uniqueNodes = allNodesInPath.stream()
-                .distinct().sorted((node1, node2) -> {
-                    if (Objects.equals(node1, this.depot)) return -1;
-                    if (Objects.equals(node2, this.depot)) return 1;
-                    return Integer.compare(node1, node2);
-                }).toList();
-
-        return uniqueNodes.stream()
-                .map(String::valueOf)
-                .collect(Collectors.joining(","));
-    }
 }
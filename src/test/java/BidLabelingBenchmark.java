@@ -0,0 +1,47 @@
+import algo.BidLabeling;
+import baseinfo.Constants;
+import impl.Carrier;
+import impl.Fence;
+import impl.Instance;
+import impl.Order;
+
+import java.util.HashMap;
+import java.util.List;
+
+public class BidLabelingBenchmark {
+    public static void main(String[] args) {
+        // 参数：算例模式（"CG"为完整数据，其他为小规模测试数据）、重复次数
+        Constants.ALGO_MODE = args.length > 0 ? args[0] : "1";
+        int repeatNum = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        for (int repeat = 1; repeat <= repeatNum; repeat++) {
+            // 串行与前后向并发（PARALLEL_DIRECTION_MODE）各计时一次，对比拼接线程带来的开销/收益
+            for (boolean parallelDirectionMode : new boolean[]{false, true}) {
+                // BidLabeling初始化会修改围栏有效弧（追加999节点），每次重新构建算例
+                long initStart = System.nanoTime();
+                Instance instance = new Instance();
+                System.out.printf("算例初始化耗时：%.1f ms%n", (System.nanoTime() - initStart) / 1e6);
+
+                // 初始对偶值全部为0，与列生成第一轮一致
+                HashMap<String, Double> dualsOfRLMP = new HashMap<>();
+                for (Fence fence : instance.getFences().getFenceList()) {
+                    dualsOfRLMP.put(fence.getConstName(), 0.0);
+                }
+                for (Carrier carrier : instance.getCarrierList()) {
+                    dualsOfRLMP.put(carrier.getConstName(), 0.0);
+                }
+
+                BidLabeling bidLabeling = new BidLabeling(instance);
+                bidLabeling.setOrderLimit(Constants.ITERATION_COLUMN_NUM);
+                bidLabeling.setTimeLimit(Constants.ITERATION_TIME_LIMIT);
+                bidLabeling.setParallelDirectionMode(parallelDirectionMode);
+                long solveStart = System.nanoTime();
+                List<Order> orders = bidLabeling.solve(dualsOfRLMP);
+                double solveTime = (System.nanoTime() - solveStart) / 1e6;
+                double reducedCostSum = orders.stream().mapToDouble(Order::getReducedCost).sum();
+                System.out.printf("第%d次求解（%s）：耗时=%.1f ms，订单数=%d，检验数之和=%.4f%n", repeat,
+                        parallelDirectionMode ? "前后向并发" : "串行", solveTime, orders.size(), reducedCostSum);
+            }
+        }
+    }
+}
@@ -1,3 +1,4 @@
+import baseinfo.DistanceMatrix;
 import baseinfo.MapDistance;
 import org.apache.poi.ss.usermodel.*;
 
@@ -40,9 +41,9 @@ public class DistanceCalculator {
             System.out.println("成功读取 " + coordinates.size() + " 个点的数据");
 
             // 计算距离矩阵
-            List<List<Double>> distanceMatrix = MapDistance.calculateDistanceMatrix(coordinates);
+            DistanceMatrix distanceMatrix = MapDistance.calculateDistanceMatrix(coordinates);
 
-            System.out.println("距离矩阵大小: " + distanceMatrix.size() + "x" + distanceMatrix.getFirst().size());
+            System.out.println("距离矩阵大小: " + distanceMatrix.getRowNum() + "x" + distanceMatrix.getColNum());
 
         } catch (IOException e) {
             System.err.println("读取XLSX文件时出错: " + e.getMessage());
@@ -1,24 +1,26 @@
 import Utils.Initializer;
+import baseinfo.DistanceMatrix;
 import baseinfo.MapDistance;
+import baseinfo.PointTable;
+import baseinfo.StreamingXlsxLoader;
 import impl.Depot;
 import impl.Fence;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
-import static baseinfo.MapDistance.initialDistanceMatrix;
-
 public class FenceInitialTest {
-    public static void main(String[] args) {
-        List<List<Double>> distanceMatrix;
+    public static void main(String[] args) throws IOException {
+        PointTable pointTable = StreamingXlsxLoader.load();
         Initializer initializer = new Initializer();
-        distanceMatrix = initialDistanceMatrix();
-        List<double[]> depotMap;
-        depotMap = MapDistance.initialDepotMap();
-        ArrayList<Fence> fenceList;
-        fenceList = initializer.fenceInitializer(distanceMatrix);
+        List<double[]> fenceCoordinates = pointTable.fenceCoordinates();
+        DistanceMatrix distanceMatrix;
+        distanceMatrix = MapDistance.calculateDistanceMatrixParallel(fenceCoordinates);
         ArrayList<Depot> depotList;
-        depotList = initializer.depotInitializer(depotMap);
+        depotList = initializer.depotInitializer(pointTable, fenceCoordinates, null);
+        ArrayList<Fence> fenceList;
+        fenceList = initializer.fenceInitializer(pointTable, distanceMatrix, null);
         System.out.println("测试完毕");
     }
-}
\ No newline at end of file
+}